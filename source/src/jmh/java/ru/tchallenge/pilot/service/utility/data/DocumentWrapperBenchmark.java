@@ -0,0 +1,80 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ru.tchallenge.pilot.service.domain.workbook.WorkbookDocument;
+import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentDocument;
+
+/**
+ * Allocations of repeated reads of a workbook, as done by its assessment and projection, with the decoded
+ * assignments memoized by a single wrapper against a wrapper decoding them on every read.
+ *
+ * Run with {@code ./gradlew jmh}, the gc profiler reports the bytes allocated per operation (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentWrapperBenchmark {
+
+    @Param({"20"})
+    private int assignments;
+
+    @Param({"4"})
+    private int reads;
+
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        final List<Document> list = new ArrayList<>(assignments);
+        for (int index = 0; index < assignments; index++) {
+            list.add(new Document("problemId", new ObjectId()).append("score", index).append("scoreMax", 5));
+        }
+        document = new Document("_id", new ObjectId())
+                .append("eventId", new ObjectId())
+                .append("assignments", list);
+    }
+
+    @Benchmark
+    public void memoized(final Blackhole blackhole) {
+        final WorkbookDocument workbook = new WorkbookDocument(document);
+        for (int read = 0; read < reads; read++) {
+            read(workbook, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void decodedPerRead(final Blackhole blackhole) {
+        for (int read = 0; read < reads; read++) {
+            read(new WorkbookDocument(document), blackhole);
+        }
+    }
+
+    private static void read(final WorkbookDocument workbook, final Blackhole blackhole) {
+        blackhole.consume(workbook.getEventId());
+        for (final AssignmentDocument assignment : workbook.getAssignments()) {
+            blackhole.consume(assignment.getProblemId());
+            blackhole.consume(assignment.getScore());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.tchallenge.pilot.service.utility.serialization;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import spark.Request;
+import spark.Response;
+
+import ru.tchallenge.pilot.service.domain.problem.Problem;
+import ru.tchallenge.pilot.service.domain.problem.ProblemCategory;
+import ru.tchallenge.pilot.service.domain.problem.ProblemDifficulty;
+import ru.tchallenge.pilot.service.domain.problem.ProblemExpectation;
+import ru.tchallenge.pilot.service.domain.problem.ProblemStatus;
+import ru.tchallenge.pilot.service.domain.problem.option.ProblemOption;
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+/**
+ * Responding with a list of problems serialized into a string, then encoded and written by the container,
+ * against the same list serialized straight to the response output stream.
+ *
+ * Run with {@code ./gradlew jmh}, the gc profiler reports the bytes allocated per operation (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"10", "500"})
+    private int problems;
+
+    private List<Problem> data;
+    private Request request;
+    private Response response;
+    private long written;
+
+    @Setup
+    public void setUp() {
+        data = new ArrayList<>(problems);
+        for (int index = 0; index < problems; index++) {
+            data.add(problem(index));
+        }
+        request = new Request() {
+
+            @Override
+            public String headers(final String header) {
+                return null;
+            }
+
+            @Override
+            public <T> T attribute(final String attribute) {
+                return null;
+            }
+
+            @Override
+            public void attribute(final String attribute, final Object value) {
+
+            }
+        };
+        final HttpServletResponse raw = response(new ServletOutputStream() {
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener writeListener) {
+
+            }
+
+            @Override
+            public void write(final int b) {
+                written++;
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                written += len;
+            }
+        });
+        response = new Response() {
+
+            @Override
+            public HttpServletResponse raw() {
+                return raw;
+            }
+
+            @Override
+            public void header(final String header, final String value) {
+
+            }
+        };
+    }
+
+    @Benchmark
+    public long string() throws Exception {
+        final String body = (String) Json.json(data, request, response);
+        // the container encodes the string returned by the route before writing it
+        try (OutputStream output = response.raw().getOutputStream()) {
+            output.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return written;
+    }
+
+    @Benchmark
+    public long writer() {
+        Json.write(data, request, response);
+        return written;
+    }
+
+    private static Problem problem(final int index) {
+        final ImmutableList.Builder<ProblemOption> options = ImmutableList.builder();
+        for (int option = 0; option < 4; option++) {
+            options.add(ProblemOption.builder()
+                    .index(option)
+                    .textcode(String.valueOf((char) ('a' + option)))
+                    .content("Option " + option + " of the problem " + index)
+                    .correct(option == 0)
+                    .build());
+        }
+        return Problem.builder()
+                .id(new Id(String.format("%024x", index)))
+                .categories(ImmutableList.of(ProblemCategory.JAVA, ProblemCategory.OOD))
+                .complexity(index % 5)
+                .difficulty(ProblemDifficulty.MODERATE)
+                .expectation(ProblemExpectation.SINGLE)
+                .introduction("Introduction of the problem " + index + ", a couple of sentences long as the real ones are.")
+                .question("Which of the following statements about the problem " + index + " are true?")
+                .options(options.build())
+                .status(ProblemStatus.APPROVED)
+                .build();
+    }
+
+    /**
+     * Servlet response writing to the given stream, with no headers of its own.
+     */
+    private static HttpServletResponse response(final ServletOutputStream output) {
+        return (HttpServletResponse) Proxy.newProxyInstance(
+                JsonBenchmark.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, arguments) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return output;
+                        case "getHeaders":
+                            return Collections.emptyList();
+                        case "isCommitted":
+                            return false;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
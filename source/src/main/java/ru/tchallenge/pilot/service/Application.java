@@ -7,27 +7,42 @@ import java.util.Arrays;
 import lombok.extern.slf4j.Slf4j;
 
 import spark.RouteGroup;
+import spark.Service;
 import static spark.Spark.*;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
 
+import ru.tchallenge.pilot.service.configuration.PersistenceConfiguration;
 import ru.tchallenge.pilot.service.context.ApplicationContext;
 import ru.tchallenge.pilot.service.domain.account.AccountRouter;
 import ru.tchallenge.pilot.service.domain.event.EventRouter;
+import ru.tchallenge.pilot.service.domain.problem.ProblemCatalog;
 import ru.tchallenge.pilot.service.domain.problem.ProblemRepository;
 import ru.tchallenge.pilot.service.domain.problem.ProblemRouter;
 import ru.tchallenge.pilot.service.domain.specialization.SpecializationRouter;
+import ru.tchallenge.pilot.service.domain.workbook.WorkbookProjectionCache;
 import ru.tchallenge.pilot.service.domain.workbook.WorkbookRouter;
 import ru.tchallenge.pilot.service.security.SecurityRouter;
 import ru.tchallenge.pilot.service.security.authentication.AuthenticationInterceptor;
 import ru.tchallenge.pilot.service.security.authentication.AuthenticationInterceptorBean;
 import ru.tchallenge.pilot.service.security.authentication.AuthenticationManager;
+import ru.tchallenge.pilot.service.security.token.TokenManager;
+import ru.tchallenge.pilot.service.utility.data.VersionConflictException;
+import ru.tchallenge.pilot.service.utility.http.Compression;
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
+import ru.tchallenge.pilot.service.utility.http.EntityTags;
+import ru.tchallenge.pilot.service.utility.http.PayloadTooLargeException;
+import ru.tchallenge.pilot.service.utility.http.PrecompressedPayload;
+import ru.tchallenge.pilot.service.utility.http.UnsupportedMediaTypeException;
 import ru.tchallenge.pilot.service.utility.serialization.Json;
 
 @Slf4j
 public final class Application implements Runnable {
 
+    private static final String DEFAULT_METRICS_HOST = "127.0.0.1";
+    private static final int DEFAULT_METRICS_PORT = 4568;
+
     public static void main(String... arguments) {
         new Application().run();
     }
@@ -36,6 +51,10 @@ public final class Application implements Runnable {
     private AccountRouter accountRouter;
     private AuthenticationInterceptor authenticationInterceptor;
     private EventRouter eventRouter;
+    private PersistenceConfiguration persistenceConfiguration;
+    private ProblemCatalog problemCatalog;
+    private WorkbookProjectionCache workbookProjectionCache;
+    private TokenManager tokenManager;
     private ProblemRouter problemRouter;
     private SecurityRouter securityRouter;
     private SpecializationRouter specializationRouter;
@@ -49,6 +68,10 @@ public final class Application implements Runnable {
         this.accountRouter = this.context.getComponent(AccountRouter.class);
         this.authenticationInterceptor = this.context.getComponent(AuthenticationInterceptorBean.class);
         this.eventRouter = this.context.getComponent(EventRouter.class);
+        this.persistenceConfiguration = this.context.getComponent(PersistenceConfiguration.class);
+        this.problemCatalog = this.context.getComponent(ProblemCatalog.class);
+        this.workbookProjectionCache = this.context.getComponent(WorkbookProjectionCache.class);
+        this.tokenManager = this.context.getComponent(TokenManager.class);
         this.problemRouter = this.context.getComponent(ProblemRouter.class);
         this.securityRouter = this.context.getComponent(SecurityRouter.class);
         this.specializationRouter = this.context.getComponent(SpecializationRouter.class);
@@ -58,9 +81,25 @@ public final class Application implements Runnable {
         registerDomainRouters();
         registerSecurityRouters();
         registerUtilityRouters();
+        registerMetricsRouters();
     }
 
     private void registerErrorHandlers() {
+        exception(VersionConflictException.class, (exception, request, response) -> {
+            log.warn("Requested operation rejected: {}", exception.getMessage());
+            response.status(request.headers(EntityTags.HEADER_IF_MATCH) != null ? 412 : 409);
+            response.body(exception.getMessage());
+        });
+        exception(PayloadTooLargeException.class, (exception, request, response) -> {
+            log.warn("Requested operation rejected: {}", exception.getMessage());
+            response.status(413);
+            response.body(exception.getMessage());
+        });
+        exception(UnsupportedMediaTypeException.class, (exception, request, response) -> {
+            log.warn("Requested operation rejected: {}", exception.getMessage());
+            response.status(415);
+            response.body(exception.getMessage());
+        });
         exception(Exception.class, (exception, request, response) -> {
             log.error("Requested operation terminated with an error", exception);
             response.status(400);
@@ -69,14 +108,17 @@ public final class Application implements Runnable {
     }
 
     private void registerInterceptors() {
-        options("/*", (request, response) -> Json.json(response));
+        options("/*", (request, response) -> Json.json(request, response));
         before("/*", authenticationInterceptor::before);
         after("/*", authenticationInterceptor::after);
         before("/*", (request, response) -> {
             response.header("Access-Control-Allow-Origin", "*");
             response.header("Access-Control-Allow-Methods", "GET, PUT, POST, DELETE");
             response.header("Access-Control-Allow-Headers", "*");
+            response.header("Access-Control-Expose-Headers", EntityTags.HEADER_ETAG + ", " + ConditionalRequests.HEADER_LAST_MODIFIED);
         });
+        after("/*", ConditionalRequests::after);
+        after("/*", Compression::after);
     }
 
     private void registerDomainRouters() {
@@ -98,19 +140,40 @@ public final class Application implements Runnable {
     }
 
     private void registerUtilityRouters() {
-        final String specification;
+        final PrecompressedPayload specification;
         try {
             final URL specificationUrl = Resources.getResource("specification/openapi.yaml");
-            specification = Resources.toString(specificationUrl, Charsets.UTF_8);
+            specification = PrecompressedPayload.of("application/yaml", Resources.toString(specificationUrl, Charsets.UTF_8));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        get("/specification", (request, response) -> {
-            response.header("Content-Type", "application/yaml");
-            return specification;
-        });
+        get("/specification", specification::send);
         get("/version", (request, response) -> {
             return "1.0.0-SNAPSHOT";
         });
     }
+
+    /**
+     * Metrics are served by a separate instance on an admin port, bound to the loopback interface unless
+     * TCHALLENGE_METRICS_HOST says otherwise, so they are never exposed with the public API.
+     */
+    private void registerMetricsRouters() {
+        final String host = System.getenv("TCHALLENGE_METRICS_HOST");
+        final String port = System.getenv("TCHALLENGE_METRICS_PORT");
+        final Service metrics = Service.ignite()
+                .ipAddress(host != null && !host.isEmpty() ? host : DEFAULT_METRICS_HOST)
+                .port(port != null && !port.isEmpty() ? Integer.parseInt(port) : DEFAULT_METRICS_PORT);
+        metrics.get("/metrics/persistence", (request, response) -> {
+            return Json.json(persistenceConfiguration.getConnectionPoolStatistics(), request, response);
+        });
+        metrics.get("/metrics/problem-catalog", (request, response) -> {
+            return Json.json(problemCatalog.getStatistics(), request, response);
+        });
+        metrics.get("/metrics/workbook-projections", (request, response) -> {
+            return Json.json(workbookProjectionCache.getStatistics(), request, response);
+        });
+        metrics.get("/metrics/security-tokens", (request, response) -> {
+            return Json.json(tokenManager.getStatistics(), request, response);
+        });
+    }
 }
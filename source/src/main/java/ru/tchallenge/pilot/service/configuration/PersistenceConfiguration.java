@@ -1,30 +1,116 @@
 package ru.tchallenge.pilot.service.configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ServerAddress;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 
 import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedConfiguration;
+import ru.tchallenge.pilot.service.domain.problem.ProblemRecordCodec;
+import ru.tchallenge.pilot.service.domain.workbook.WorkbookRecordCodec;
+import ru.tchallenge.pilot.service.utility.data.ConnectionPoolMetrics;
+import ru.tchallenge.pilot.service.utility.data.ConnectionPoolStatistics;
 
+@Slf4j
 @ManagedConfiguration
 public class PersistenceConfiguration extends GenericApplicationComponent {
 
+    /**
+     * Codecs of the records the repositories read, nested record codecs are owned by their parent codecs.
+     */
+    private static final CodecRegistry CODEC_REGISTRY = CodecRegistries.fromRegistries(
+            MongoClient.getDefaultCodecRegistry(),
+            CodecRegistries.fromCodecs(
+                    new ProblemRecordCodec(),
+                    new WorkbookRecordCodec()
+            )
+    );
+
+    private static int environmentVariableAsInt(final String name, final int defaultValue) {
+        final String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? Integer.parseInt(value) : defaultValue;
+    }
+
     private MongoDatabase database;
+    private ConnectionPoolMetrics connectionPoolMetrics;
 
     public MongoCollection<Document> getDocumentCollection(String name) {
         return database.getCollection(name);
     }
 
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return connectionPoolMetrics.getStatistics();
+    }
+
     @Override
     public void init() {
         super.init();
         String mongodbHost = System.getenv("TCHALLENGE_MONGODB_HOST");
         String mongodbPort = System.getenv("TCHALLENGE_MONGODB_PORT");
         String mongodbDatabase = System.getenv("TCHALLENGE_MONGODB_DATABASE");
-        MongoClient mongoClient = new MongoClient(mongodbHost, Integer.parseInt(mongodbPort));
-        database = mongoClient.getDatabase(mongodbDatabase);
+        connectionPoolMetrics = new ConnectionPoolMetrics();
+        MongoClient mongoClient = new MongoClient(new ServerAddress(mongodbHost, Integer.parseInt(mongodbPort)), clientOptions());
+        database = mongoClient.getDatabase(mongodbDatabase).withCodecRegistry(CODEC_REGISTRY);
+    }
+
+    /**
+     * Client options tunable through the environment, unset variables keep the driver defaults.
+     */
+    private MongoClientOptions clientOptions() {
+        final MongoClientOptions defaults = MongoClientOptions.builder().build();
+        final int maxPoolSize = environmentVariableAsInt("TCHALLENGE_MONGODB_POOL_MAX_SIZE", defaults.getConnectionsPerHost());
+        final int maxWaitQueueSize = environmentVariableAsInt("TCHALLENGE_MONGODB_POOL_MAX_WAIT_QUEUE_SIZE", maxPoolSize * defaults.getThreadsAllowedToBlockForConnectionMultiplier());
+        final MongoClientOptions options = MongoClientOptions.builder()
+                .minConnectionsPerHost(environmentVariableAsInt("TCHALLENGE_MONGODB_POOL_MIN_SIZE", defaults.getMinConnectionsPerHost()))
+                .connectionsPerHost(maxPoolSize)
+                .threadsAllowedToBlockForConnectionMultiplier(Math.max(1, maxWaitQueueSize / maxPoolSize))
+                .maxWaitTime(environmentVariableAsInt("TCHALLENGE_MONGODB_POOL_MAX_WAIT_MS", defaults.getMaxWaitTime()))
+                .connectTimeout(environmentVariableAsInt("TCHALLENGE_MONGODB_CONNECT_TIMEOUT_MS", defaults.getConnectTimeout()))
+                .socketTimeout(environmentVariableAsInt("TCHALLENGE_MONGODB_SOCKET_TIMEOUT_MS", defaults.getSocketTimeout()))
+                .serverSelectionTimeout(environmentVariableAsInt("TCHALLENGE_MONGODB_SERVER_SELECTION_TIMEOUT_MS", defaults.getServerSelectionTimeout()))
+                .compressorList(compressors())
+                .addConnectionPoolListener(connectionPoolMetrics)
+                .build();
+        log.info("MongoDB connection pool: min {}, max {}, wait queue {}, max wait {} ms, compressors {}",
+                options.getMinConnectionsPerHost(), options.getConnectionsPerHost(),
+                options.getConnectionsPerHost() * options.getThreadsAllowedToBlockForConnectionMultiplier(),
+                options.getMaxWaitTime(), options.getCompressorList());
+        return options;
+    }
+
+    /**
+     * Wire compressors in the order of preference, e.g. "snappy,zlib". The server picks the first one it supports.
+     */
+    private List<MongoCompressor> compressors() {
+        final List<MongoCompressor> result = new ArrayList<>();
+        final String value = System.getenv("TCHALLENGE_MONGODB_COMPRESSORS");
+        if (value == null || value.isEmpty()) {
+            return result;
+        }
+        for (final String name : value.split(",")) {
+            switch (name.trim().toLowerCase()) {
+                case "snappy":
+                    result.add(MongoCompressor.createSnappyCompressor());
+                    break;
+                case "zlib":
+                    result.add(MongoCompressor.createZlibCompressor());
+                    break;
+                default:
+                    throw new RuntimeException("MongoDB compressor is not supported: " + name);
+            }
+        }
+        return result;
     }
 }
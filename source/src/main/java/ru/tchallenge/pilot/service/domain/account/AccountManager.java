@@ -6,6 +6,7 @@ import org.bson.Document;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.security.authentication.AuthenticationManager;
 import ru.tchallenge.pilot.service.security.authentication.AuthenticationRequestContext;
 import ru.tchallenge.pilot.service.utility.data.DocumentWrapper;
 import ru.tchallenge.pilot.service.utility.data.Id;
@@ -18,6 +19,7 @@ public class AccountManager extends GenericApplicationComponent {
     private AccountPasswordValidator accountPasswordValidator;
     private AccountRepository accountRepository;
     private AccountSystemManager accountSystemManager;
+    private AuthenticationManager authenticationManager;
 
     @Override
     public void init() {
@@ -27,6 +29,7 @@ public class AccountManager extends GenericApplicationComponent {
         this.accountPasswordValidator = getComponent(AccountPasswordValidator.class);
         this.accountRepository = getComponent(AccountRepository.class);
         this.accountSystemManager = getComponent(AccountSystemManager.class);
+        this.authenticationManager = getComponent(AuthenticationManager.class);
     }
 
     public Account retrieveCurrent(Request request) {
@@ -38,34 +41,44 @@ public class AccountManager extends GenericApplicationComponent {
     public void updateCurrentPassword(Request request, final AccountPasswordUpdateInvoice invoice) {
         final String id = authenticatedAccountId(request);
         accountPasswordValidator.validate(invoice.getDesired());
-        final Document accountDocument = accountRepository.findById(new Id(id)).getDocument();
-        final String passwordHash = accountDocument.getString("passwordHash");
+        final DocumentWrapper account = accountRepository.findById(new Id(id), AccountRepository.PROJECTION_CREDENTIALS);
+        if (account == null) {
+            throw accountIsMissing();
+        }
+        final String passwordHash = account.getDocument().getString("passwordHash");
         if (!accountPasswordHashEngine.match(invoice.getCurrent(), passwordHash)) {
             throw new RuntimeException("Current password does not match");
         }
-        accountDocument.put("passwordHash", accountPasswordHashEngine.hash(invoice.getDesired()));
-        accountRepository.replace(new DocumentWrapper(accountDocument));
+        account.stage("passwordHash", accountPasswordHashEngine.hash(invoice.getDesired()));
+        accountRepository.update(account);
     }
 
     public void updateCurrentPersonality(Request request, final AccountPersonality invoice) {
         final String id = authenticatedAccountId(request);
-        final Document accountDocument = accountRepository.findById(new Id(id)).getDocument();
         final Document accountPersonalityDocument = accountSystemManager.createAccountPersonalityDocument(invoice);
-        accountDocument.put("personality", accountPersonalityDocument);
-        accountRepository.replace(new DocumentWrapper(accountDocument));
+        final DocumentWrapper account = new DocumentWrapper(new Id(id)).stage("personality", accountPersonalityDocument);
+        if (!accountRepository.update(account)) {
+            throw accountIsMissing();
+        }
     }
 
     public void updateCurrentStatus(Request request, final AccountStatusUpdateInvoice invoice) {
         final String id = authenticatedAccountId(request);
-        final Document accountDocument = accountRepository.findById(new Id(id)).getDocument();
         if (!invoice.getNewStatus().equals("DELETED")) {
             throw new RuntimeException("Status is not permitted");
         }
-        accountDocument.put("status", invoice.getNewStatus());
-        accountRepository.replace(new DocumentWrapper(accountDocument));
+        final DocumentWrapper account = new DocumentWrapper(new Id(id)).stage("status", invoice.getNewStatus());
+        if (!accountRepository.update(account)) {
+            throw accountIsMissing();
+        }
+        authenticationManager.invalidateAccount(id);
     }
 
     private String authenticatedAccountId(Request request) {
         return new AuthenticationRequestContext(request).getAuthentication().getAccountId();
     }
+
+    private RuntimeException accountIsMissing() {
+        return new RuntimeException("Account is missing");
+    }
 }
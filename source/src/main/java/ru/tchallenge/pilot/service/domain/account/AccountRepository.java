@@ -1,6 +1,17 @@
 package ru.tchallenge.pilot.service.domain.account;
 
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.utility.data.GenericRepository;
@@ -8,10 +19,14 @@ import ru.tchallenge.pilot.service.utility.data.GenericRepository;
 @ManagedComponent
 public class AccountRepository extends GenericRepository {
 
-    public Document findByEmail(final String email) {
+    public static final String PROJECTION_CREDENTIALS = "credentials";
+    public static final String PROJECTION_SHORT = "short";
+
+    public Document findByEmail(final String email, final String projectionName) {
         return documents()
                 .find()
                 .filter(new Document("email", email))
+                .projection(projection(projectionName))
                 .first();
     }
 
@@ -19,4 +34,24 @@ public class AccountRepository extends GenericRepository {
     protected String getCollectionName() {
         return "accounts";
     }
+
+    @Override
+    protected WriteConcern getWriteConcern() {
+        return WriteConcern.MAJORITY;
+    }
+
+    @Override
+    protected Collection<IndexModel> getIndexes() {
+        return ImmutableList.of(
+                new IndexModel(Indexes.ascending("email"), new IndexOptions().unique(true))
+        );
+    }
+
+    @Override
+    protected Map<String, Bson> getProjections() {
+        return ImmutableMap.of(
+                PROJECTION_CREDENTIALS, Projections.include("email", "passwordHash", "status"),
+                PROJECTION_SHORT, Projections.include("email", "status")
+        );
+    }
 }
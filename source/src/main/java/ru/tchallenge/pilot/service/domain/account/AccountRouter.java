@@ -24,22 +24,22 @@ public class AccountRouter extends GenericApplicationComponent implements RouteG
             path("/current", () -> {
                 get("", (request, response) -> {
                     final Account account = accountManager.retrieveCurrent(request);
-                    return Json.json(account, response);
+                    return Json.json(account, request, response);
                 });
                 put("/password", (request, response) -> {
                     final AccountPasswordUpdateInvoice invoice = Json.body(AccountPasswordUpdateInvoice.class, request);
                     accountManager.updateCurrentPassword(request, invoice);
-                    return Json.json(response);
+                    return Json.json(request, response);
                 });
                 put("/personality", (request, response) -> {
                     final AccountPersonality invoice = Json.body(AccountPersonality.class, request);
                     accountManager.updateCurrentPersonality(request, invoice);
-                    return Json.json(response);
+                    return Json.json(request, response);
                 });
                 put("/status", (request, response) -> {
                     final AccountStatusUpdateInvoice invoice = Json.body(AccountStatusUpdateInvoice.class, request);
                     accountManager.updateCurrentStatus(request, invoice);
-                    return Json.json(response);
+                    return Json.json(request, response);
                 });
             });
         });
@@ -3,6 +3,8 @@ package ru.tchallenge.pilot.service.domain.account;
 import java.sql.Date;
 import java.time.Instant;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
 import org.bson.Document;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
@@ -30,9 +32,6 @@ public class AccountSystemManager extends GenericApplicationComponent {
 
     public IdAware create(final AccountInvoice invoice) {
         accountPasswordValidator.validate(invoice.getPassword());
-        if (accountRepository.findByEmail(invoice.getEmail()) != null) {
-            throw new RuntimeException("Account with such email already exists");
-        }
         final Document document = new Document();
         document.put("email", invoice.getEmail());
         document.put("passwordHash", accountPasswordHashEngine.hash(invoice.getPassword()));
@@ -40,20 +39,27 @@ public class AccountSystemManager extends GenericApplicationComponent {
         final Document personalityDocument = createAccountPersonalityDocument(invoice.getPersonality());
         document.put("personality", personalityDocument);
         document.put("registeredAt", Date.from(Instant.now()));
-        accountRepository.insert(new DocumentWrapper(document));
+        try {
+            accountRepository.insert(new DocumentWrapper(document));
+        } catch (MongoWriteException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                throw new RuntimeException("Account with such email already exists");
+            }
+            throw e;
+        }
         return new DocumentWrapper(document).justId();
     }
 
     public void updatePassword(final Id id, final String password) {
         accountPasswordValidator.validate(password);
-        final Document accountDocument = accountRepository.findById(id).getDocument();
         final String passwordHash = accountPasswordHashEngine.hash(password);
-        accountDocument.put("passwordHash", passwordHash);
-        accountRepository.replace(new DocumentWrapper(accountDocument));
+        if (!accountRepository.update(new DocumentWrapper(id).stage("passwordHash", passwordHash))) {
+            throw new RuntimeException("Account is missing");
+        }
     }
 
     public Account findByEmail(final String email) {
-        final Document document = accountRepository.findByEmail(email);
+        final Document document = accountRepository.findByEmail(email, AccountRepository.PROJECTION_SHORT);
         if (document == null) {
             return null;
         }
@@ -61,11 +67,11 @@ public class AccountSystemManager extends GenericApplicationComponent {
     }
 
     public Account findById(final String id) {
-        final Document document = accountRepository.findById(new Id(id)).getDocument();
-        if (document == null) {
+        final DocumentWrapper wrapper = accountRepository.findById(new Id(id), AccountRepository.PROJECTION_SHORT);
+        if (wrapper == null) {
             return null;
         }
-        return accountProjector.intoAccountShort(document);
+        return accountProjector.intoAccountShort(wrapper.getDocument());
     }
 
     public Document createAccountPersonalityDocument(final AccountPersonality accountPersonality) {
@@ -2,7 +2,6 @@ package ru.tchallenge.pilot.service.domain.event;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.mongodb.client.model.Filters;
 import org.bson.Document;
@@ -20,16 +19,16 @@ public final class EventDocument extends DocumentWrapper {
         return Filters.and(byPermalink, byStatus);
     }
 
-    private static final String ATTRIBUTE_CAPTION = "caption";
-    private static final String ATTRIBUTE_DESCRIPTION = "description";
-    private static final String ATTRIBUTE_GREETING = "greeting";
-    private static final String ATTRIBUTE_MATURITIES = "maturities";
-    private static final String ATTRIBUTE_NOTIFICATIONS = "notifications";
-    private static final String ATTRIBUTE_PERMALINK = "permalink";
-    private static final String ATTRIBUTE_SPECIALIZATION_IDS = "specializationIds";
-    private static final String ATTRIBUTE_STATUS = "status";
-    private static final String ATTRIBUTE_VALID_FROM = "validFrom";
-    private static final String ATTRIBUTE_VALID_UNTIL = "validUntil";
+    static final String ATTRIBUTE_CAPTION = "caption";
+    static final String ATTRIBUTE_DESCRIPTION = "description";
+    static final String ATTRIBUTE_GREETING = "greeting";
+    static final String ATTRIBUTE_MATURITIES = "maturities";
+    static final String ATTRIBUTE_NOTIFICATIONS = "notifications";
+    static final String ATTRIBUTE_PERMALINK = "permalink";
+    static final String ATTRIBUTE_SPECIALIZATION_IDS = "specializationIds";
+    static final String ATTRIBUTE_STATUS = "status";
+    static final String ATTRIBUTE_VALID_FROM = "validFrom";
+    static final String ATTRIBUTE_VALID_UNTIL = "validUntil";
 
     public EventDocument(final Document document) {
         super(document);
@@ -48,10 +47,7 @@ public final class EventDocument extends DocumentWrapper {
     }
 
     public List<Maturity> getMaturities() {
-        return retrieveListOfStrings(ATTRIBUTE_MATURITIES)
-                .stream()
-                .map(Maturity::valueOf)
-                .collect(Collectors.toList());
+        return retrieveListOfEnums(ATTRIBUTE_MATURITIES, Maturity.class);
     }
 
     public List<String> getNotifications() {
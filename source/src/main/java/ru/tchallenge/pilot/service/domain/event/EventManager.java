@@ -1,33 +1,67 @@
 package ru.tchallenge.pilot.service.domain.event;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import spark.Request;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.MongoClient;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceDataManager;
 import ru.tchallenge.pilot.service.security.authentication.Authentication;
 import ru.tchallenge.pilot.service.security.authentication.AuthenticationRequestContext;
+import ru.tchallenge.pilot.service.utility.data.ContinuationToken;
 import ru.tchallenge.pilot.service.utility.data.Id;
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
 
 @ManagedComponent
 public class EventManager extends GenericApplicationComponent {
 
+    private static final long TOTAL_TTL_SECONDS = 30;
+    private static final long TOTAL_MAX_SHAPES = 1000;
+    private static final int TOTAL_THREADS = 4;
+
     private EventRepository eventRepository;
     private EventProjector eventProjector;
+    private ReferenceDataManager referenceDataManager;
+    private Cache<String, CompletableFuture<Long>> totals;
+    private ExecutorService counter;
 
     @Override
     public void init() {
         super.init();
         this.eventProjector = getComponent(EventProjector.class);
         this.eventRepository = getComponent(EventRepository.class);
+        this.referenceDataManager = getComponent(ReferenceDataManager.class);
+        this.totals = CacheBuilder.newBuilder()
+                .expireAfterWrite(TOTAL_TTL_SECONDS, TimeUnit.SECONDS)
+                .maximumSize(TOTAL_MAX_SHAPES)
+                .build();
+        this.counter = Executors.newFixedThreadPool(TOTAL_THREADS, new ThreadFactoryBuilder()
+                .setNameFormat("event-count-%d")
+                .setDaemon(true)
+                .build());
     }
 
     public Event retrieveById(Request request, Id id) {
         authentication(request);
+        final Event event = referenceDataManager.getSnapshot().event(id);
+        if (event != null) {
+            return event;
+        }
         final EventDocument document = eventRepository.findById(id);
         if (document == null) {
             throw new RuntimeException("Event is not found");
@@ -35,20 +69,73 @@ public class EventManager extends GenericApplicationComponent {
         return eventProjector.event(document);
     }
 
+    /**
+     * Weak entity tag of a search result: the reference data snapshot, which is only versioned when the events
+     * change, combined with the search itself. Edits reach the tag with the next snapshot refresh.
+     */
+    public String retrieveSearchTag(Request request, EventSearchInvoice invoice) {
+        authentication(request);
+        return ConditionalRequests.weakOfContent(String.join(" ",
+                referenceDataManager.getSnapshot().getEntityTag(),
+                shape(EventDocument.filter(invoice.getFilter())),
+                String.valueOf(invoice.getLimit()),
+                String.valueOf(invoice.getOffset()),
+                String.valueOf(invoice.getContinuation())));
+    }
+
     public EventSearchResult retrieveSearchResult(Request request, EventSearchInvoice invoice) {
         authentication(request);
-        final List<EventDocument> documents = eventRepository.find(invoice);
+        final CompletableFuture<Long> total = total(invoice.getFilter());
+        final List<Event> items = eventRepository
+                .find(invoice)
+                .map(eventProjector::eventShort)
+                .into(new ArrayList<>());
         return EventSearchResult.builder()
-                .items(ImmutableList.copyOf(mapSearchItems(documents)))
-                .total(42)
+                .items(items)
+                .total(Math.toIntExact(await(total)))
+                .continuation(continuation(items, invoice.getLimit()))
                 .build();
     }
 
-    private List<Event> mapSearchItems(final List<EventDocument> documents) {
-        return documents
-                .stream()
-                .map(eventProjector::eventShort)
-                .collect(Collectors.toList());
+    /**
+     * Total number of events matching the filter, shared between concurrent searches of the same filter shape
+     * and kept for a short time. The count is started before the page query and runs concurrently with it
+     * on a small pool of its own. Failed counts are not cached.
+     */
+    private CompletableFuture<Long> total(final EventFilter filter) {
+        final Bson bson = EventDocument.filter(filter);
+        final String shape = shape(bson);
+        final CompletableFuture<Long> result;
+        try {
+            result = totals.get(shape, () -> CompletableFuture.supplyAsync(() -> eventRepository.count(bson), counter));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        result.whenComplete((count, error) -> {
+            if (error != null) {
+                totals.asMap().remove(shape, result);
+            }
+        });
+        return result;
+    }
+
+    private static String shape(final Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry()).toJson();
+    }
+
+    private static long await(final CompletableFuture<Long> total) {
+        try {
+            return total.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private String continuation(final List<Event> items, final Integer limit) {
+        if (items.isEmpty() || limit == null || items.size() < limit) {
+            return null;
+        }
+        return ContinuationToken.encode(items.get(items.size() - 1).getId());
     }
 
     private Authentication authentication(Request request) {
@@ -14,7 +14,7 @@ public class EventProjector extends GenericProjector {
                 .greeting(document.getGreeting())
                 .notifications(immutableList(document.getNotifications()))
                 .maturities(immutableList(document.getMaturities()))
-                .permalink(document.getCaption())
+                .permalink(document.getPermalink())
                 .specializationIds(immutableList(document.getSpecializationIds()))
                 .status(document.getStatus())
                 .validFrom(document.getValidFrom())
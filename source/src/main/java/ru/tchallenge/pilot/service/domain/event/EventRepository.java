@@ -1,9 +1,20 @@
 package ru.tchallenge.pilot.service.domain.event;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.data.ContinuationToken;
 import ru.tchallenge.pilot.service.utility.data.DocumentWrapper;
 import ru.tchallenge.pilot.service.utility.data.GenericRepository;
 import ru.tchallenge.pilot.service.utility.data.Id;
@@ -11,14 +22,34 @@ import ru.tchallenge.pilot.service.utility.data.Id;
 @ManagedComponent
 public class EventRepository extends GenericRepository {
 
-    public List<EventDocument> find(final EventSearchInvoice invoice) {
+    public static final String PROJECTION_SHORT = "short";
+
+    public MongoIterable<EventDocument> findAll() {
+        return documents()
+                .find()
+                .map(EventDocument::new);
+    }
+
+    /**
+     * Finds a page of events in id order. A continuation token seeks past the last id of the previous page,
+     * so deep pages cost the same as the first; the offset is only applied without one.
+     */
+    public MongoIterable<EventDocument> find(final EventSearchInvoice invoice) {
+        Bson filter = EventDocument.filter(invoice.getFilter());
+        int skip = invoice.getOffset() != null ? invoice.getOffset() : 0;
+        if (invoice.getContinuation() != null) {
+            final Id lastId = ContinuationToken.decode(invoice.getContinuation());
+            filter = Filters.and(filter, DocumentWrapper.filterAfterId(lastId));
+            skip = 0;
+        }
         return documents()
                 .find()
-                .filter(EventDocument.filter(invoice.getFilter()))
-                .skip(invoice.getOffset())
+                .filter(filter)
+                .projection(projection(PROJECTION_SHORT))
+                .sort(DocumentWrapper.sortById())
+                .skip(skip)
                 .limit(invoice.getLimit())
-                .map(EventDocument::new)
-                .into(new ArrayList<>());
+                .map(EventDocument::new);
     }
 
     @Override
@@ -34,4 +65,26 @@ public class EventRepository extends GenericRepository {
     protected String getCollectionName() {
         return "events";
     }
+
+    @Override
+    protected ReadPreference getReadPreference() {
+        return ReadPreference.secondaryPreferred();
+    }
+
+    @Override
+    protected Collection<IndexModel> getIndexes() {
+        return ImmutableList.of(
+                new IndexModel(Indexes.ascending(EventDocument.ATTRIBUTE_STATUS, EventDocument.ATTRIBUTE_PERMALINK))
+        );
+    }
+
+    @Override
+    protected Map<String, Bson> getProjections() {
+        return ImmutableMap.of(
+                PROJECTION_SHORT, Projections.include(
+                        EventDocument.ATTRIBUTE_CAPTION,
+                        EventDocument.ATTRIBUTE_PERMALINK,
+                        EventDocument.ATTRIBUTE_STATUS)
+        );
+    }
 }
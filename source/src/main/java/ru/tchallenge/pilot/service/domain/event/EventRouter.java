@@ -1,5 +1,8 @@
 package ru.tchallenge.pilot.service.domain.event;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import spark.Request;
 import spark.RouteGroup;
 
@@ -10,6 +13,7 @@ import static spark.Spark.path;
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.utility.data.Id;
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
 import ru.tchallenge.pilot.service.utility.serialization.Json;
 
 @ManagedComponent
@@ -28,13 +32,20 @@ public class EventRouter extends GenericApplicationComponent implements RouteGro
         path("events/", () -> {
             get("/", (request, response) -> {
                 final EventSearchInvoice invoice = searchInvoice(request);
+                final String entityTag = eventManager.retrieveSearchTag(request, invoice);
+                if (ConditionalRequests.notModified(request, response, entityTag, null)) {
+                    return "";
+                }
                 final EventSearchResult result = eventManager.retrieveSearchResult(request, invoice);
-                return Json.json(result, response);
+                final Map<String, Object> attributes = new HashMap<>();
+                attributes.put("total", result.getTotal());
+                attributes.put("continuation", result.getContinuation());
+                return Json.stream(result.getItems(), attributes, request, response);
             });
             get("/:id", (request, response) -> {
                 final Id id = new Id(request.params("id"));
                 final Event result = eventManager.retrieveById(request, id);
-                return Json.json(result, response);
+                return Json.json(result, request, response);
             });
         });
     }
@@ -51,6 +62,7 @@ public class EventRouter extends GenericApplicationComponent implements RouteGro
                 .filter(filter)
                 .limit(Integer.parseInt(limit))
                 .offset(Integer.parseInt(offset))
+                .continuation(request.queryParams("continuation"))
                 .build();
     }
 }
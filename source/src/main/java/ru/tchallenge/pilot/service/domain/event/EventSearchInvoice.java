@@ -10,4 +10,5 @@ public final class EventSearchInvoice {
     private EventFilter filter;
     private Integer limit;
     private Integer offset;
+    private String continuation;
 }
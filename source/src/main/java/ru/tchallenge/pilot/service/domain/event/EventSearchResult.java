@@ -1,7 +1,5 @@
 package ru.tchallenge.pilot.service.domain.event;
 
-import java.util.List;
-
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,6 +7,7 @@ import lombok.Data;
 @Builder
 public final class EventSearchResult {
 
-    private final List<Event> items;
+    private final Iterable<Event> items;
     private final Integer total;
+    private final String continuation;
 }
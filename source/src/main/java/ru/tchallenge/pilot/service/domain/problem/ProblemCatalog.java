@@ -0,0 +1,176 @@
+package ru.tchallenge.pilot.service.domain.problem;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.ReadPreference;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.cache.CacheStatistics;
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+/**
+ * Read-through in-memory catalog of problems.
+ *
+ * Approved problems are loaded on first use and kept current by polling for problems modified since the last
+ * refresh. The polling window overlaps the previous one to tolerate clock skew between writers, problems are
+ * never deleted by the service so removals are not tracked. Polls may read a lagging secondary, reads following
+ * a write of this node (misses and invalidation refreshes) go to the primary so they see the write.
+ */
+@Slf4j
+@ManagedComponent
+public class ProblemCatalog extends GenericApplicationComponent {
+
+    private static final String VARIABLE_REFRESH_SECONDS = "TCHALLENGE_PROBLEM_CATALOG_REFRESH_SECONDS";
+    private static final long DEFAULT_REFRESH_SECONDS = 60;
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final String GENERATION = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Id, ProblemRecord> problems = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong version = new AtomicLong();
+    private ProblemRepository problemRepository;
+    private ScheduledExecutorService refresher;
+    private volatile boolean loaded;
+    private volatile Instant watermark;
+
+    @Override
+    public void init() {
+        super.init();
+        this.problemRepository = getComponent(ProblemRepository.class);
+        final String variable = System.getenv(VARIABLE_REFRESH_SECONDS);
+        final long refreshSeconds = variable != null ? Long.parseLong(variable) : DEFAULT_REFRESH_SECONDS;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("problem-catalog-%d")
+                .setDaemon(true)
+                .build());
+        this.refresher.scheduleWithFixedDelay(() -> refreshSafely(ReadPreference.secondaryPreferred()), refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Problems with the given ids in no particular order, loading the ones not in the catalog yet.
+     */
+    public List<ProblemRecord> getAll(final Collection<Id> ids) {
+        ensureLoaded();
+        final List<ProblemRecord> result = new ArrayList<>(ids.size());
+        final List<Id> missing = new ArrayList<>();
+        for (final Id id : ids) {
+            final ProblemRecord problem = problems.get(id);
+            if (problem != null) {
+                result.add(problem);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.add(result.size());
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            final List<ProblemRecord> found = problemRepository.findRecordsByIds(missing, ReadPreference.primary());
+            for (final ProblemRecord problem : found) {
+                problems.put(problem.getId(), problem);
+                result.add(problem);
+            }
+            if (!found.isEmpty()) {
+                version.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Snapshot of all problems currently in the catalog.
+     */
+    public Collection<ProblemRecord> getAll() {
+        ensureLoaded();
+        return new ArrayList<>(problems.values());
+    }
+
+    /**
+     * Drops the problem and schedules an immediate refresh, so new and changed problems show up without
+     * waiting for the next poll.
+     */
+    public void invalidate(final Id id) {
+        problems.remove(id);
+        version.incrementAndGet();
+        refresher.execute(() -> refreshSafely(ReadPreference.primary()));
+    }
+
+    /**
+     * Number incremented whenever the content of the catalog changes, for views derived from it.
+     */
+    public long getVersion() {
+        ensureLoaded();
+        return version.get();
+    }
+
+    /**
+     * Name of the given version, unique across restarts as versions start over on each one.
+     */
+    public String revision(final long version) {
+        return GENERATION + "." + version;
+    }
+
+    public CacheStatistics getStatistics() {
+        return CacheStatistics.builder()
+                .size(problems.size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .build();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        final Instant startedAt = Instant.now();
+        problemRepository.findApprovedRecords().forEach(p -> problems.put(p.getId(), p));
+        watermark = startedAt;
+        version.incrementAndGet();
+        loaded = true;
+        log.info("Problem catalog loaded: {} problems", problems.size());
+    }
+
+    private synchronized void refresh(final ReadPreference readPreference) {
+        if (!loaded) {
+            load();
+            return;
+        }
+        final Instant startedAt = Instant.now();
+        final List<ProblemRecord> modified = problemRepository.findRecordsModifiedSince(watermark.minus(REFRESH_OVERLAP), readPreference);
+        modified.forEach(p -> problems.put(p.getId(), p));
+        if (!modified.isEmpty()) {
+            version.incrementAndGet();
+        }
+        watermark = startedAt;
+        log.debug("Problem catalog refreshed: {} problems modified", modified.size());
+    }
+
+    private void refreshSafely(final ReadPreference readPreference) {
+        try {
+            refresh(readPreference);
+        } catch (Exception exception) {
+            log.error("Problem catalog refresh has failed", exception);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.tchallenge.pilot.service.domain.problem;
 
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -20,6 +22,14 @@ public final class ProblemDocument extends DocumentWrapper {
         return Filters.in(ATTRIBUTE_ID, ids.stream().map(Id::toObjectId).collect(Collectors.toList()));
     }
 
+    public static Bson filterApproved() {
+        return Filters.eq(ATTRIBUTE_STATUS, ProblemStatus.APPROVED.name());
+    }
+
+    public static Bson filterModifiedSince(final Instant instant) {
+        return Filters.gte(ATTRIBUTE_LAST_MODIFIED_AT, Date.from(instant));
+    }
+
     public static Bson randomFilter(final Set<ProblemCategory> categories, final ProblemDifficulty difficulty) {
         final Bson categoryFilter = Filters.in(ATTRIBUTE_CATEGORIES, setOfStrings(categories));
         final Bson baseFilter = new Document()
@@ -28,16 +38,16 @@ public final class ProblemDocument extends DocumentWrapper {
         return Filters.and(baseFilter, categoryFilter);
     }
 
-    private static final String ATTRIBUTE_CATEGORIES = "categories";
-    private static final String ATTRIBUTE_COMPLEXITY = "complexity";
-    private static final String ATTRIBUTE_DIFFICULTY = "difficulty";
-    private static final String ATTRIBUTE_EXPECTATION = "expectation";
-    private static final String ATTRIBUTE_IMAGES = "images";
-    private static final String ATTRIBUTE_INTRODUCTION = "introduction";
-    private static final String ATTRIBUTE_OPTIONS = "options";
-    private static final String ATTRIBUTE_QUESTION = "question";
-    private static final String ATTRIBUTE_SNIPPETS = "snippets";
-    private static final String ATTRIBUTE_STATUS = "status";
+    static final String ATTRIBUTE_CATEGORIES = "categories";
+    static final String ATTRIBUTE_COMPLEXITY = "complexity";
+    static final String ATTRIBUTE_DIFFICULTY = "difficulty";
+    static final String ATTRIBUTE_EXPECTATION = "expectation";
+    static final String ATTRIBUTE_IMAGES = "images";
+    static final String ATTRIBUTE_INTRODUCTION = "introduction";
+    static final String ATTRIBUTE_OPTIONS = "options";
+    static final String ATTRIBUTE_QUESTION = "question";
+    static final String ATTRIBUTE_SNIPPETS = "snippets";
+    static final String ATTRIBUTE_STATUS = "status";
 
     public ProblemDocument() {
 
@@ -48,14 +58,11 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public List<ProblemCategory> getCategories() {
-        return retrieveListOfStrings(ATTRIBUTE_CATEGORIES)
-                .stream()
-                .map(ProblemCategory::valueOf)
-                .collect(Collectors.toList());
+        return retrieveListOfEnums(ATTRIBUTE_CATEGORIES, ProblemCategory.class);
     }
 
     public ProblemDocument categories(final List<ProblemCategory> categories) {
-        document.put(ATTRIBUTE_CATEGORIES, categories.stream().map(ProblemCategory::name).collect(Collectors.toList()));
+        store(ATTRIBUTE_CATEGORIES, categories.stream().map(ProblemCategory::name).collect(Collectors.toList()));
         return this;
     }
 
@@ -64,7 +71,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument complexity(final Integer complexity) {
-        document.put(ATTRIBUTE_COMPLEXITY, complexity);
+        store(ATTRIBUTE_COMPLEXITY, complexity);
         return this;
     }
 
@@ -73,7 +80,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument difficulty(final ProblemDifficulty difficulty) {
-        document.put(ATTRIBUTE_DIFFICULTY, difficulty.name());
+        store(ATTRIBUTE_DIFFICULTY, difficulty.name());
         return this;
     }
 
@@ -82,7 +89,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument expectation(final ProblemExpectation expectation) {
-        document.put(ATTRIBUTE_EXPECTATION, expectation.name());
+        store(ATTRIBUTE_EXPECTATION, expectation.name());
         return this;
     }
 
@@ -95,7 +102,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument introduction(final String introduction) {
-        document.put(ATTRIBUTE_INTRODUCTION, introduction);
+        store(ATTRIBUTE_INTRODUCTION, introduction);
         return this;
     }
 
@@ -104,11 +111,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument options(final List<ProblemOptionDocument> optionDocuments) {
-        final List<Document> list = optionDocuments
-                .stream()
-                .map(ProblemOptionDocument::getDocument)
-                .collect(Collectors.toList());
-        document.put(ATTRIBUTE_OPTIONS, list);
+        storeListOfDocuments(ATTRIBUTE_OPTIONS, optionDocuments);
         return this;
     }
 
@@ -117,7 +120,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument question(final String question) {
-        document.put(ATTRIBUTE_QUESTION, question);
+        store(ATTRIBUTE_QUESTION, question);
         return this;
     }
 
@@ -126,11 +129,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument snippets(final List<ProblemSnippetDocument> snippetDocuments) {
-        final List<Document> list = snippetDocuments
-                .stream()
-                .map(ProblemSnippetDocument::getDocument)
-                .collect(Collectors.toList());
-        document.put(ATTRIBUTE_SNIPPETS, list);
+        storeListOfDocuments(ATTRIBUTE_SNIPPETS, snippetDocuments);
         return this;
     }
 
@@ -139,7 +138,7 @@ public final class ProblemDocument extends DocumentWrapper {
     }
 
     public ProblemDocument status(final ProblemStatus status) {
-        document.put(ATTRIBUTE_STATUS, status.name());
+        store(ATTRIBUTE_STATUS, status.name());
         return this;
     }
 }
@@ -6,6 +6,7 @@ import spark.Request;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.data.CollectionState;
 import ru.tchallenge.pilot.service.utility.data.IdAware;
 import ru.tchallenge.pilot.service.utility.experimental.ExperimentalContext;
 
@@ -27,11 +28,16 @@ public class ProblemFacade extends GenericApplicationComponent {
         return problemManager.create(request, invoice);
     }
 
-    public List<Problem> retrieveAll(Request request) {
+    public Iterable<Problem> retrieveAll(Request request) {
         ensureExperimentalFeaturesEnabled();
         return problemManager.retrieveAll(request);
     }
 
+    public CollectionState retrieveState(Request request) {
+        ensureExperimentalFeaturesEnabled();
+        return problemManager.retrieveState(request);
+    }
+
     public List<Problem> retrieveRandom(Request request, ProblemRandomInvoice invoice) {
         ensureExperimentalFeaturesEnabled();
         return problemManager.retrieveRandom(request, invoice);
@@ -12,17 +12,20 @@ import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionDocument;
 import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionInvoice;
 import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetDocument;
 import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetInvoice;
+import ru.tchallenge.pilot.service.utility.data.CollectionState;
 import ru.tchallenge.pilot.service.utility.data.IdAware;
 
 @ManagedComponent
 public class ProblemManager extends GenericApplicationComponent {
 
+    private ProblemCatalog problemCatalog;
     private ProblemProjector problemProjector;
     private ProblemRepository problemRepository;
 
     @Override
     public void init() {
         super.init();
+        this.problemCatalog = getComponent(ProblemCatalog.class);
         this.problemProjector = getComponent(ProblemProjector.class);
         this.problemRepository = getComponent(ProblemRepository.class);
     }
@@ -30,15 +33,18 @@ public class ProblemManager extends GenericApplicationComponent {
     public IdAware create(Request request, ProblemInvoice invoice) {
         final ProblemDocument problemDocument = prepareNewProblem(invoice);
         problemRepository.insert(problemDocument);
+        problemCatalog.invalidate(problemDocument.getId());
         return problemProjector.problem(problemDocument, false);
     }
 
-    public List<Problem> retrieveAll(Request request) {
+    public Iterable<Problem> retrieveAll(Request request) {
         return problemRepository
                 .findAll()
-                .stream()
-                .map(d -> problemProjector.problem(d, false))
-                .collect(Collectors.toList());
+                .map(d -> problemProjector.problem(d, false));
+    }
+
+    public CollectionState retrieveState(Request request) {
+        return problemRepository.findState();
     }
 
     public List<Problem> retrieveRandom(Request request, ProblemRandomInvoice invoice) {
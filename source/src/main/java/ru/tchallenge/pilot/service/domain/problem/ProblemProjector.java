@@ -7,12 +7,15 @@ import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.domain.problem.image.ProblemImage;
 import ru.tchallenge.pilot.service.domain.problem.image.ProblemImageDocument;
 import ru.tchallenge.pilot.service.domain.problem.image.ProblemImageProjector;
+import ru.tchallenge.pilot.service.domain.problem.image.ProblemImageRecord;
 import ru.tchallenge.pilot.service.domain.problem.option.ProblemOption;
 import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionDocument;
 import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionProjector;
+import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionRecord;
 import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippet;
 import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetDocument;
 import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetProjector;
+import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetRecord;
 import ru.tchallenge.pilot.service.utility.data.GenericProjector;
 
 @ManagedComponent
@@ -45,6 +48,20 @@ public class ProblemProjector extends GenericProjector {
                 .build();
     }
 
+    public Problem problem(final ProblemRecord record, final boolean classified) {
+        return Problem.builder()
+                .categories(record.getCategories())
+                .complexity(record.getComplexity())
+                .difficulty(record.getDifficulty())
+                .expectation(record.getExpectation())
+                .images(immutableList(problemImageRecords(record.getImages())))
+                .introduction(record.getIntroduction())
+                .options(immutableList(problemOptionRecords(record.getOptions(), classified)))
+                .question(record.getQuestion())
+                .snippets(immutableList(problemSnippetRecords(record.getSnippets())))
+                .build();
+    }
+
     private List<ProblemImage> problemImages(final List<ProblemImageDocument> documents) {
         return documents
                 .stream()
@@ -67,6 +84,28 @@ public class ProblemProjector extends GenericProjector {
                 .collect(Collectors.toList());
     }
 
+    private List<ProblemImage> problemImageRecords(final List<ProblemImageRecord> records) {
+        return records
+                .stream()
+                .map(imageProjector::problemImage)
+                .collect(Collectors.toList());
+    }
+
+    private List<ProblemOption> problemOptionRecords(final List<ProblemOptionRecord> records, final boolean classified) {
+        final Indexer indexer = new Indexer();
+        return records
+                .stream()
+                .map(r -> optionProjector.problemOption(r, classified, indexer.inc()))
+                .collect(Collectors.toList());
+    }
+
+    private List<ProblemSnippet> problemSnippetRecords(final List<ProblemSnippetRecord> records) {
+        return records
+                .stream()
+                .map(snippetProjector::problemSnippet)
+                .collect(Collectors.toList());
+    }
+
     private static final class Indexer {
 
         private int index = 0;
@@ -0,0 +1,37 @@
+package ru.tchallenge.pilot.service.domain.problem;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Data;
+
+import com.google.common.collect.ImmutableList;
+
+import ru.tchallenge.pilot.service.domain.problem.image.ProblemImageRecord;
+import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionRecord;
+import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetRecord;
+import ru.tchallenge.pilot.service.utility.data.Id;
+import ru.tchallenge.pilot.service.utility.data.IdAware;
+
+@Data
+@Builder
+public final class ProblemRecord implements IdAware {
+
+    private final Id id;
+    @Builder.Default
+    private final ImmutableList<ProblemCategory> categories = ImmutableList.of();
+    private final Integer complexity;
+    private final ProblemDifficulty difficulty;
+    private final ProblemExpectation expectation;
+    @Builder.Default
+    private final ImmutableList<ProblemImageRecord> images = ImmutableList.of();
+    private final String introduction;
+    @Builder.Default
+    private final ImmutableList<ProblemOptionRecord> options = ImmutableList.of();
+    private final String question;
+    @Builder.Default
+    private final ImmutableList<ProblemSnippetRecord> snippets = ImmutableList.of();
+    private final ProblemStatus status;
+    private final Instant createdAt;
+    private final Instant lastModifiedAt;
+}
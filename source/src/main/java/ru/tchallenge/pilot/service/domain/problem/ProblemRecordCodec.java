@@ -0,0 +1,99 @@
+package ru.tchallenge.pilot.service.domain.problem;
+
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import ru.tchallenge.pilot.service.domain.problem.image.ProblemImageRecordCodec;
+import ru.tchallenge.pilot.service.domain.problem.option.ProblemOptionRecordCodec;
+import ru.tchallenge.pilot.service.domain.problem.snippet.ProblemSnippetRecordCodec;
+import ru.tchallenge.pilot.service.utility.data.GenericCodec;
+
+public final class ProblemRecordCodec extends GenericCodec<ProblemRecord, ProblemRecord.ProblemRecordBuilder> {
+
+    private final ProblemImageRecordCodec imageCodec = new ProblemImageRecordCodec();
+    private final ProblemOptionRecordCodec optionCodec = new ProblemOptionRecordCodec();
+    private final ProblemSnippetRecordCodec snippetCodec = new ProblemSnippetRecordCodec();
+
+    public ProblemRecordCodec() {
+        super(ProblemRecord.class);
+    }
+
+    @Override
+    protected ProblemRecord.ProblemRecordBuilder builder() {
+        return ProblemRecord.builder();
+    }
+
+    @Override
+    protected boolean decodeAttribute(final ProblemRecord.ProblemRecordBuilder builder,
+                                      final String attribute,
+                                      final BsonReader reader,
+                                      final DecoderContext context) {
+        switch (attribute) {
+            case ATTRIBUTE_ID:
+                builder.id(readId(reader));
+                return true;
+            case ProblemDocument.ATTRIBUTE_CATEGORIES:
+                builder.categories(readList(reader, r -> readEnum(r, ProblemCategory.class)));
+                return true;
+            case ProblemDocument.ATTRIBUTE_COMPLEXITY:
+                builder.complexity(readInteger(reader));
+                return true;
+            case ProblemDocument.ATTRIBUTE_DIFFICULTY:
+                builder.difficulty(readEnum(reader, ProblemDifficulty.class));
+                return true;
+            case ProblemDocument.ATTRIBUTE_EXPECTATION:
+                builder.expectation(readEnum(reader, ProblemExpectation.class));
+                return true;
+            case ProblemDocument.ATTRIBUTE_IMAGES:
+                builder.images(readList(reader, context, imageCodec));
+                return true;
+            case ProblemDocument.ATTRIBUTE_INTRODUCTION:
+                builder.introduction(readString(reader));
+                return true;
+            case ProblemDocument.ATTRIBUTE_OPTIONS:
+                builder.options(readList(reader, context, optionCodec));
+                return true;
+            case ProblemDocument.ATTRIBUTE_QUESTION:
+                builder.question(readString(reader));
+                return true;
+            case ProblemDocument.ATTRIBUTE_SNIPPETS:
+                builder.snippets(readList(reader, context, snippetCodec));
+                return true;
+            case ProblemDocument.ATTRIBUTE_STATUS:
+                builder.status(readEnum(reader, ProblemStatus.class));
+                return true;
+            case ATTRIBUTE_CREATED_AT:
+                builder.createdAt(readInstant(reader));
+                return true;
+            case ATTRIBUTE_LAST_MODIFIED_AT:
+                builder.lastModifiedAt(readInstant(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected ProblemRecord build(final ProblemRecord.ProblemRecordBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    protected void encodeAttributes(final BsonWriter writer, final ProblemRecord value, final EncoderContext context) {
+        writeId(writer, ATTRIBUTE_ID, value.getId());
+        writeList(writer, ProblemDocument.ATTRIBUTE_CATEGORIES, value.getCategories(), (w, category) -> w.writeString(category.name()));
+        writeInteger(writer, ProblemDocument.ATTRIBUTE_COMPLEXITY, value.getComplexity());
+        writeEnum(writer, ProblemDocument.ATTRIBUTE_DIFFICULTY, value.getDifficulty());
+        writeEnum(writer, ProblemDocument.ATTRIBUTE_EXPECTATION, value.getExpectation());
+        writeList(writer, ProblemDocument.ATTRIBUTE_IMAGES, value.getImages(), context, imageCodec);
+        writeString(writer, ProblemDocument.ATTRIBUTE_INTRODUCTION, value.getIntroduction());
+        writeList(writer, ProblemDocument.ATTRIBUTE_OPTIONS, value.getOptions(), context, optionCodec);
+        writeString(writer, ProblemDocument.ATTRIBUTE_QUESTION, value.getQuestion());
+        writeList(writer, ProblemDocument.ATTRIBUTE_SNIPPETS, value.getSnippets(), context, snippetCodec);
+        writeEnum(writer, ProblemDocument.ATTRIBUTE_STATUS, value.getStatus());
+        writeInstant(writer, ATTRIBUTE_CREATED_AT, value.getCreatedAt());
+        writeInstant(writer, ATTRIBUTE_LAST_MODIFIED_AT, value.getLastModifiedAt());
+    }
+}
@@ -1,13 +1,22 @@
 package ru.tchallenge.pilot.service.domain.problem;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoIterable;
 import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
 import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.context.ManagedComponent;
@@ -19,18 +28,32 @@ public class ProblemRepository extends GenericRepository {
 
     private static final int MAX_RANDOM_ITERATIONS = 3;
 
-    public List<ProblemDocument> findAll() {
+    public MongoIterable<ProblemDocument> findAll() {
         return documents()
                 .find()
-                .map(ProblemDocument::new)
-                .into(new ArrayList<>());
+                .map(ProblemDocument::new);
     }
 
-    public List<ProblemDocument> findByIds(final List<Id> ids) {
-        return documents()
+    public List<ProblemRecord> findRecordsByIds(final List<Id> ids, final ReadPreference readPreference) {
+        return records(ProblemRecord.class)
+                .withReadPreference(readPreference)
                 .find()
                 .filter(ProblemDocument.filterByIds(ids))
-                .map(ProblemDocument::new)
+                .into(new ArrayList<>());
+    }
+
+    public List<ProblemRecord> findApprovedRecords() {
+        return records(ProblemRecord.class)
+                .find()
+                .filter(ProblemDocument.filterApproved())
+                .into(new ArrayList<>());
+    }
+
+    public List<ProblemRecord> findRecordsModifiedSince(final Instant instant, final ReadPreference readPreference) {
+        return records(ProblemRecord.class)
+                .withReadPreference(readPreference)
+                .find()
+                .filter(ProblemDocument.filterModifiedSince(instant))
                 .into(new ArrayList<>());
     }
 
@@ -65,4 +88,22 @@ public class ProblemRepository extends GenericRepository {
     protected String getCollectionName() {
         return "problems";
     }
+
+    @Override
+    protected ReadPreference getReadPreference() {
+        return ReadPreference.secondaryPreferred();
+    }
+
+    @Override
+    protected Collection<IndexModel> getIndexes() {
+        return ImmutableList.of(
+                new IndexModel(
+                        Indexes.ascending(ProblemDocument.ATTRIBUTE_DIFFICULTY, ProblemDocument.ATTRIBUTE_CATEGORIES),
+                        new IndexOptions()
+                                .name("approved_difficulty_categories")
+                                .partialFilterExpression(Filters.eq(ProblemDocument.ATTRIBUTE_STATUS, ProblemStatus.APPROVED.name()))
+                ),
+                new IndexModel(Indexes.ascending("lastModifiedAt"))
+        );
+    }
 }
@@ -7,7 +7,9 @@ import static spark.Spark.*;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.data.CollectionState;
 import ru.tchallenge.pilot.service.utility.data.IdAware;
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
 import ru.tchallenge.pilot.service.utility.serialization.Json;
 
 @ManagedComponent
@@ -25,18 +27,22 @@ public class ProblemRouter extends GenericApplicationComponent implements RouteG
     public void addRoutes() {
         path("/problems", () -> {
             get("/", (request, response) -> {
-                final List<Problem> problems = problemFacade.retrieveAll(request);
-                return Json.json(problems, response);
+                final CollectionState state = problemFacade.retrieveState(request);
+                if (ConditionalRequests.notModified(request, response, state.getEntityTag(), state.getLastModifiedAt())) {
+                    return "";
+                }
+                final Iterable<Problem> problems = problemFacade.retrieveAll(request);
+                return Json.stream(problems, request, response);
             });
             post("/", (request, response) -> {
                 final ProblemInvoice invoice = Json.body(ProblemInvoice.class, request);
                 final IdAware idAware = problemFacade.create(request, invoice);
-                return Json.json(idAware.justId(), response);
+                return Json.json(idAware.justId(), request, response);
             });
             post("/random", (request, response) -> {
                 final ProblemRandomInvoice invoice = Json.body(ProblemRandomInvoice.class, request);
                 final List<Problem> problems = problemFacade.retrieveRandom(request, invoice);
-                return Json.json(problems, response);
+                return Json.write(problems, request, response);
             });
         });
     }
@@ -0,0 +1,162 @@
+package ru.tchallenge.pilot.service.domain.problem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.extern.slf4j.Slf4j;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+
+/**
+ * Draws random approved problems from an in-memory index built over the problem catalog.
+ *
+ * Problems are numbered by slots, each (difficulty, category) pair maps to an array of slots and each slot keeps
+ * a bitmask of its categories. A draw collects the slots of the requested categories once, skipping slots already
+ * contributed by a lower requested category, and shuffles only the first {@code number} positions.
+ */
+@Slf4j
+@ManagedComponent
+public class ProblemSampler extends GenericApplicationComponent {
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    private ProblemCatalog problemCatalog;
+    private volatile Index index;
+
+    @Override
+    public void init() {
+        super.init();
+        this.problemCatalog = getComponent(ProblemCatalog.class);
+    }
+
+    /**
+     * Exactly {@code number} distinct problems, or all matching problems if there are not that many.
+     */
+    public List<ProblemRecord> sample(final ProblemRandomInvoice invoice) {
+        final Index current = currentIndex();
+        final int categoryMask = mask(invoice.getCategories());
+        final int[] candidates = current.candidates(invoice.getDifficulty(), categoryMask);
+        final int number = Math.min(invoice.getNumber(), candidates.length);
+        if (number < invoice.getNumber()) {
+            log.warn("Only {} of {} requested problems match {}", candidates.length, invoice.getNumber(), invoice);
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final List<ProblemRecord> result = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            final int j = i + random.nextInt(candidates.length - i);
+            final int slot = candidates[j];
+            candidates[j] = candidates[i];
+            candidates[i] = slot;
+            result.add(current.problems[slot]);
+        }
+        return result;
+    }
+
+    private Index currentIndex() {
+        final long version = problemCatalog.getVersion();
+        final Index current = index;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        return rebuild(version);
+    }
+
+    private synchronized Index rebuild(final long version) {
+        if (index != null && index.version == version) {
+            return index;
+        }
+        index = new Index(version, problemCatalog.getAll());
+        return index;
+    }
+
+    private static int mask(final Collection<ProblemCategory> categories) {
+        int result = 0;
+        if (categories != null) {
+            for (final ProblemCategory category : categories) {
+                result |= 1 << category.ordinal();
+            }
+        }
+        return result;
+    }
+
+    private static final class Index {
+
+        private final long version;
+        private final ProblemRecord[] problems;
+        private final int[] masks;
+        private final int[][][] slots;
+
+        private Index(final long version, final Collection<ProblemRecord> catalog) {
+            final List<ProblemRecord> approved = new ArrayList<>();
+            for (final ProblemRecord problem : catalog) {
+                if (problem.getStatus() == ProblemStatus.APPROVED && problem.getDifficulty() != null) {
+                    approved.add(problem);
+                }
+            }
+            final int difficulties = ProblemDifficulty.values().length;
+            final int categories = ProblemCategory.values().length;
+            final int[][] counts = new int[difficulties][categories];
+            this.version = version;
+            this.problems = approved.toArray(new ProblemRecord[0]);
+            this.masks = new int[problems.length];
+            for (int slot = 0; slot < problems.length; slot++) {
+                masks[slot] = mask(problems[slot].getCategories());
+                final int d = problems[slot].getDifficulty().ordinal();
+                for (int c = 0; c < categories; c++) {
+                    if ((masks[slot] & (1 << c)) != 0) {
+                        counts[d][c]++;
+                    }
+                }
+            }
+            this.slots = new int[difficulties][categories][];
+            for (int d = 0; d < difficulties; d++) {
+                for (int c = 0; c < categories; c++) {
+                    slots[d][c] = counts[d][c] > 0 ? new int[counts[d][c]] : NO_SLOTS;
+                    counts[d][c] = 0;
+                }
+            }
+            for (int slot = 0; slot < problems.length; slot++) {
+                final int d = problems[slot].getDifficulty().ordinal();
+                for (int c = 0; c < categories; c++) {
+                    if ((masks[slot] & (1 << c)) != 0) {
+                        slots[d][c][counts[d][c]++] = slot;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Fresh array of distinct slots of the difficulty having any of the categories.
+         */
+        private int[] candidates(final ProblemDifficulty difficulty, final int categoryMask) {
+            if (difficulty == null) {
+                return NO_SLOTS;
+            }
+            final int[][] byCategory = slots[difficulty.ordinal()];
+            int size = 0;
+            for (int c = 0; c < byCategory.length; c++) {
+                if ((categoryMask & (1 << c)) != 0) {
+                    size += byCategory[c].length;
+                }
+            }
+            final int[] result = new int[size];
+            int length = 0;
+            for (int c = 0; c < byCategory.length; c++) {
+                if ((categoryMask & (1 << c)) == 0) {
+                    continue;
+                }
+                final int lowerRequested = categoryMask & ((1 << c) - 1);
+                for (final int slot : byCategory[c]) {
+                    if ((masks[slot] & lowerRequested) == 0) {
+                        result[length++] = slot;
+                    }
+                }
+            }
+            return length == size ? result : Arrays.copyOf(result, length);
+        }
+    }
+}
@@ -7,10 +7,10 @@ import ru.tchallenge.pilot.service.utility.data.Id;
 
 public final class ProblemImageDocument extends DocumentWrapper {
 
-    private static final String ATTRIBUTE_BINARY_ID = "binaryId";
-    private static final String ATTRIBUTE_FORMAT = "format";
-    private static final String ATTRIBUTE_HEIGHT = "height";
-    private static final String ATTRIBUTE_WIDTH = "width";
+    static final String ATTRIBUTE_BINARY_ID = "binaryId";
+    static final String ATTRIBUTE_FORMAT = "format";
+    static final String ATTRIBUTE_HEIGHT = "height";
+    static final String ATTRIBUTE_WIDTH = "width";
 
     public ProblemImageDocument(final Document document) {
         super(document);
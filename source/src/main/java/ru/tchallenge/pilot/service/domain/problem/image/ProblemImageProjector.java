@@ -14,4 +14,13 @@ public class ProblemImageProjector extends GenericProjector {
                 .width(document.getWidth())
                 .build();
     }
+
+    public ProblemImage problemImage(final ProblemImageRecord record) {
+        return ProblemImage.builder()
+                .binaryId(record.getBinaryId())
+                .format(record.getFormat())
+                .height(record.getHeight())
+                .width(record.getWidth())
+                .build();
+    }
 }
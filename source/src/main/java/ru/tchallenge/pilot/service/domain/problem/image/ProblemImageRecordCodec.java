@@ -0,0 +1,56 @@
+package ru.tchallenge.pilot.service.domain.problem.image;
+
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import ru.tchallenge.pilot.service.utility.data.GenericCodec;
+
+public final class ProblemImageRecordCodec extends GenericCodec<ProblemImageRecord, ProblemImageRecord.ProblemImageRecordBuilder> {
+
+    public ProblemImageRecordCodec() {
+        super(ProblemImageRecord.class);
+    }
+
+    @Override
+    protected ProblemImageRecord.ProblemImageRecordBuilder builder() {
+        return ProblemImageRecord.builder();
+    }
+
+    @Override
+    protected boolean decodeAttribute(final ProblemImageRecord.ProblemImageRecordBuilder builder,
+                                      final String attribute,
+                                      final BsonReader reader,
+                                      final DecoderContext context) {
+        switch (attribute) {
+            case ProblemImageDocument.ATTRIBUTE_BINARY_ID:
+                builder.binaryId(readId(reader));
+                return true;
+            case ProblemImageDocument.ATTRIBUTE_FORMAT:
+                builder.format(readEnum(reader, ProblemImageFormat.class));
+                return true;
+            case ProblemImageDocument.ATTRIBUTE_HEIGHT:
+                builder.height(readInteger(reader));
+                return true;
+            case ProblemImageDocument.ATTRIBUTE_WIDTH:
+                builder.width(readInteger(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected ProblemImageRecord build(final ProblemImageRecord.ProblemImageRecordBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    protected void encodeAttributes(final BsonWriter writer, final ProblemImageRecord value, final EncoderContext context) {
+        writeId(writer, ProblemImageDocument.ATTRIBUTE_BINARY_ID, value.getBinaryId());
+        writeEnum(writer, ProblemImageDocument.ATTRIBUTE_FORMAT, value.getFormat());
+        writeInteger(writer, ProblemImageDocument.ATTRIBUTE_HEIGHT, value.getHeight());
+        writeInteger(writer, ProblemImageDocument.ATTRIBUTE_WIDTH, value.getWidth());
+    }
+}
@@ -6,8 +6,8 @@ import ru.tchallenge.pilot.service.utility.data.DocumentWrapper;
 
 public final class ProblemOptionDocument extends DocumentWrapper {
 
-    private static final String ATTRIBUTE_CONTENT = "content";
-    private static final String ATTRIBUTE_CORRECT = "correct";
+    static final String ATTRIBUTE_CONTENT = "content";
+    static final String ATTRIBUTE_CORRECT = "correct";
 
     public ProblemOptionDocument() {
 
@@ -22,7 +22,7 @@ public final class ProblemOptionDocument extends DocumentWrapper {
     }
 
     public ProblemOptionDocument content(final String content) {
-        document.put(ATTRIBUTE_CONTENT, content);
+        store(ATTRIBUTE_CONTENT, content);
         return this;
     }
 
@@ -31,7 +31,7 @@ public final class ProblemOptionDocument extends DocumentWrapper {
     }
 
     public ProblemOptionDocument correct(final Boolean correct) {
-        document.put(ATTRIBUTE_CORRECT, correct);
+        store(ATTRIBUTE_CORRECT, correct);
         return this;
     }
 }
@@ -16,4 +16,15 @@ public class ProblemOptionProjector extends GenericProjector {
                 .correct(classified ? null : document.getCorrect())
                 .build();
     }
+
+    public ProblemOption problemOption(final ProblemOptionRecord record,
+                                       final boolean classified,
+                                       final int index) {
+        return ProblemOption.builder()
+                .index(index)
+                .textcode(String.valueOf( (char) (64 + index)))
+                .content(record.getContent())
+                .correct(classified ? null : record.getCorrect())
+                .build();
+    }
 }
@@ -0,0 +1,12 @@
+package ru.tchallenge.pilot.service.domain.problem.option;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class ProblemOptionRecord {
+
+    private final String content;
+    private final Boolean correct;
+}
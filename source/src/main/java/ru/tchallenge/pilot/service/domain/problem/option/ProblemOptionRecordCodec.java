@@ -0,0 +1,48 @@
+package ru.tchallenge.pilot.service.domain.problem.option;
+
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import ru.tchallenge.pilot.service.utility.data.GenericCodec;
+
+public final class ProblemOptionRecordCodec extends GenericCodec<ProblemOptionRecord, ProblemOptionRecord.ProblemOptionRecordBuilder> {
+
+    public ProblemOptionRecordCodec() {
+        super(ProblemOptionRecord.class);
+    }
+
+    @Override
+    protected ProblemOptionRecord.ProblemOptionRecordBuilder builder() {
+        return ProblemOptionRecord.builder();
+    }
+
+    @Override
+    protected boolean decodeAttribute(final ProblemOptionRecord.ProblemOptionRecordBuilder builder,
+                                      final String attribute,
+                                      final BsonReader reader,
+                                      final DecoderContext context) {
+        switch (attribute) {
+            case ProblemOptionDocument.ATTRIBUTE_CONTENT:
+                builder.content(readString(reader));
+                return true;
+            case ProblemOptionDocument.ATTRIBUTE_CORRECT:
+                builder.correct(readBoolean(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected ProblemOptionRecord build(final ProblemOptionRecord.ProblemOptionRecordBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    protected void encodeAttributes(final BsonWriter writer, final ProblemOptionRecord value, final EncoderContext context) {
+        writeString(writer, ProblemOptionDocument.ATTRIBUTE_CONTENT, value.getContent());
+        writeBoolean(writer, ProblemOptionDocument.ATTRIBUTE_CORRECT, value.getCorrect());
+    }
+}
@@ -6,8 +6,8 @@ import ru.tchallenge.pilot.service.utility.data.DocumentWrapper;
 
 public final class ProblemSnippetDocument extends DocumentWrapper {
 
-    private static final String ATTRIBUTE_CONTENT = "content";
-    private static final String ATTRIBUTE_STYLE = "style";
+    static final String ATTRIBUTE_CONTENT = "content";
+    static final String ATTRIBUTE_STYLE = "style";
 
     public ProblemSnippetDocument() {
 
@@ -22,7 +22,7 @@ public final class ProblemSnippetDocument extends DocumentWrapper {
     }
 
     public ProblemSnippetDocument content(final String content) {
-        document.put(ATTRIBUTE_CONTENT, content);
+        store(ATTRIBUTE_CONTENT, content);
         return this;
     }
 
@@ -31,7 +31,7 @@ public final class ProblemSnippetDocument extends DocumentWrapper {
     }
 
     public ProblemSnippetDocument style(final ProblemSnippetStyle style) {
-        document.put(ATTRIBUTE_STYLE, style.name());
+        store(ATTRIBUTE_STYLE, style.name());
         return this;
     }
 }
@@ -12,4 +12,11 @@ public class ProblemSnippetProjector extends GenericProjector {
                 .style(document.getStyle())
                 .build();
     }
+
+    public ProblemSnippet problemSnippet(final ProblemSnippetRecord record) {
+        return ProblemSnippet.builder()
+                .content(record.getContent())
+                .style(record.getStyle())
+                .build();
+    }
 }
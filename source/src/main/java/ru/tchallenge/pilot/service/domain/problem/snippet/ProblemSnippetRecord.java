@@ -0,0 +1,12 @@
+package ru.tchallenge.pilot.service.domain.problem.snippet;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class ProblemSnippetRecord {
+
+    private final String content;
+    private final ProblemSnippetStyle style;
+}
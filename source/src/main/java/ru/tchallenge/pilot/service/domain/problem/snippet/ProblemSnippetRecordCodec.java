@@ -0,0 +1,48 @@
+package ru.tchallenge.pilot.service.domain.problem.snippet;
+
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import ru.tchallenge.pilot.service.utility.data.GenericCodec;
+
+public final class ProblemSnippetRecordCodec extends GenericCodec<ProblemSnippetRecord, ProblemSnippetRecord.ProblemSnippetRecordBuilder> {
+
+    public ProblemSnippetRecordCodec() {
+        super(ProblemSnippetRecord.class);
+    }
+
+    @Override
+    protected ProblemSnippetRecord.ProblemSnippetRecordBuilder builder() {
+        return ProblemSnippetRecord.builder();
+    }
+
+    @Override
+    protected boolean decodeAttribute(final ProblemSnippetRecord.ProblemSnippetRecordBuilder builder,
+                                      final String attribute,
+                                      final BsonReader reader,
+                                      final DecoderContext context) {
+        switch (attribute) {
+            case ProblemSnippetDocument.ATTRIBUTE_CONTENT:
+                builder.content(readString(reader));
+                return true;
+            case ProblemSnippetDocument.ATTRIBUTE_STYLE:
+                builder.style(readEnum(reader, ProblemSnippetStyle.class));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected ProblemSnippetRecord build(final ProblemSnippetRecord.ProblemSnippetRecordBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    protected void encodeAttributes(final BsonWriter writer, final ProblemSnippetRecord value, final EncoderContext context) {
+        writeString(writer, ProblemSnippetDocument.ATTRIBUTE_CONTENT, value.getContent());
+        writeEnum(writer, ProblemSnippetDocument.ATTRIBUTE_STYLE, value.getStyle());
+    }
+}
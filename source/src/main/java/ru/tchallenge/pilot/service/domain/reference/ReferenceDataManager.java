@@ -0,0 +1,89 @@
+package ru.tchallenge.pilot.service.domain.reference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.domain.event.Event;
+import ru.tchallenge.pilot.service.domain.event.EventProjector;
+import ru.tchallenge.pilot.service.domain.event.EventRepository;
+import ru.tchallenge.pilot.service.domain.specialization.Specialization;
+import ru.tchallenge.pilot.service.domain.specialization.SpecializationProjector;
+import ru.tchallenge.pilot.service.domain.specialization.SpecializationRepository;
+
+/**
+ * Holds the current reference data snapshot, replaced as a whole by a periodic refresher.
+ *
+ * The first snapshot is loaded on first use. Readers never lock, the version only changes when the content does.
+ */
+@Slf4j
+@ManagedComponent
+public class ReferenceDataManager extends GenericApplicationComponent {
+
+    private static final String VARIABLE_REFRESH_SECONDS = "TCHALLENGE_REFERENCE_DATA_REFRESH_SECONDS";
+    private static final long DEFAULT_REFRESH_SECONDS = 300;
+
+    private final AtomicReference<ReferenceSnapshot> snapshot = new AtomicReference<>();
+    private EventProjector eventProjector;
+    private EventRepository eventRepository;
+    private SpecializationProjector specializationProjector;
+    private SpecializationRepository specializationRepository;
+    private ScheduledExecutorService refresher;
+
+    @Override
+    public void init() {
+        super.init();
+        this.eventProjector = getComponent(EventProjector.class);
+        this.eventRepository = getComponent(EventRepository.class);
+        this.specializationProjector = getComponent(SpecializationProjector.class);
+        this.specializationRepository = getComponent(SpecializationRepository.class);
+        final String variable = System.getenv(VARIABLE_REFRESH_SECONDS);
+        final long refreshSeconds = variable != null ? Long.parseLong(variable) : DEFAULT_REFRESH_SECONDS;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("reference-data-%d")
+                .setDaemon(true)
+                .build());
+        this.refresher.scheduleWithFixedDelay(this::refreshSafely, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    public ReferenceSnapshot getSnapshot() {
+        final ReferenceSnapshot current = snapshot.get();
+        return current != null ? current : refresh();
+    }
+
+    private synchronized ReferenceSnapshot refresh() {
+        final ReferenceSnapshot current = snapshot.get();
+        final List<Specialization> specializations = specializationRepository
+                .findAll()
+                .map(specializationProjector::specialization)
+                .into(new ArrayList<>());
+        final List<Event> events = eventRepository
+                .findAll()
+                .map(eventProjector::event)
+                .into(new ArrayList<>());
+        final ReferenceSnapshot next = (current != null ? current : ReferenceSnapshot.EMPTY).next(specializations, events);
+        if (next == current) {
+            return current;
+        }
+        snapshot.set(next);
+        log.info("Reference data snapshot {}: {} specializations, {} events", next.getVersion(), specializations.size(), events.size());
+        return next;
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception exception) {
+            log.error("Reference data refresh has failed", exception);
+        }
+    }
+}
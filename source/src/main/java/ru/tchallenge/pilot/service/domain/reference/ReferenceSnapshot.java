@@ -0,0 +1,112 @@
+package ru.tchallenge.pilot.service.domain.reference;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import ru.tchallenge.pilot.service.domain.event.Event;
+import ru.tchallenge.pilot.service.domain.event.EventStatus;
+import ru.tchallenge.pilot.service.domain.specialization.Specialization;
+import ru.tchallenge.pilot.service.utility.data.Id;
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
+
+/**
+ * Immutable view of specializations and events at a given version.
+ *
+ * Permalinks are not unique in the database. A duplicate resolves to the first entry, or to an approved event
+ * over one which is not, and is logged.
+ */
+@Slf4j
+public final class ReferenceSnapshot {
+
+    private static final String GENERATION = Long.toString(System.currentTimeMillis(), 36);
+
+    static final ReferenceSnapshot EMPTY = new ReferenceSnapshot(0, ImmutableList.of(), ImmutableList.of());
+
+    @Getter
+    private final long version;
+    @Getter
+    private final ImmutableList<Specialization> specializations;
+    @Getter
+    private final ImmutableList<Event> events;
+    private final ImmutableMap<Id, Specialization> specializationsById;
+    private final ImmutableMap<String, Specialization> specializationsByPermalink;
+    private final ImmutableMap<Id, Event> eventsById;
+    private final ImmutableMap<String, Event> eventsByPermalink;
+
+    ReferenceSnapshot(final long version, final List<Specialization> specializations, final List<Event> events) {
+        this.version = version;
+        this.specializations = ImmutableList.copyOf(specializations);
+        this.events = ImmutableList.copyOf(events);
+        final ImmutableMap.Builder<Id, Specialization> specializationsById = ImmutableMap.builder();
+        final Map<String, Specialization> specializationsByPermalink = new LinkedHashMap<>();
+        for (final Specialization specialization : specializations) {
+            specializationsById.put(specialization.getId(), specialization);
+            if (specialization.getPermalink() != null) {
+                final Specialization existing = specializationsByPermalink.putIfAbsent(specialization.getPermalink(), specialization);
+                if (existing != null) {
+                    log.warn("Specialization permalink {} is duplicated by {} and {}, {} is kept",
+                            specialization.getPermalink(), existing.getId().toHex(), specialization.getId().toHex(), existing.getId().toHex());
+                }
+            }
+        }
+        final ImmutableMap.Builder<Id, Event> eventsById = ImmutableMap.builder();
+        final Map<String, Event> eventsByPermalink = new LinkedHashMap<>();
+        for (final Event event : events) {
+            eventsById.put(event.getId(), event);
+            if (event.getPermalink() != null) {
+                final Event existing = eventsByPermalink.putIfAbsent(event.getPermalink(), event);
+                if (existing == null) {
+                    continue;
+                }
+                final Event kept = existing.getStatus() != EventStatus.APPROVED && event.getStatus() == EventStatus.APPROVED ? event : existing;
+                eventsByPermalink.put(event.getPermalink(), kept);
+                log.warn("Event permalink {} is duplicated by {} and {}, {} is kept",
+                        event.getPermalink(), existing.getId().toHex(), event.getId().toHex(), kept.getId().toHex());
+            }
+        }
+        this.specializationsById = specializationsById.build();
+        this.specializationsByPermalink = ImmutableMap.copyOf(specializationsByPermalink);
+        this.eventsById = eventsById.build();
+        this.eventsByPermalink = ImmutableMap.copyOf(eventsByPermalink);
+    }
+
+    /**
+     * Weak entity tag of the snapshot, unique across restarts as versions start over on each one.
+     */
+    public String getEntityTag() {
+        return ConditionalRequests.weak(GENERATION + "-" + version);
+    }
+
+    public Specialization specialization(final Id id) {
+        return specializationsById.get(id);
+    }
+
+    public Specialization specializationByPermalink(final String permalink) {
+        return specializationsByPermalink.get(permalink);
+    }
+
+    public Event event(final Id id) {
+        return eventsById.get(id);
+    }
+
+    public Event eventByPermalink(final String permalink) {
+        return eventsByPermalink.get(permalink);
+    }
+
+    /**
+     * Snapshot of the given content: this one if the content is the same, otherwise one of the next version.
+     */
+    ReferenceSnapshot next(final List<Specialization> specializations, final List<Event> events) {
+        if (this.specializations.equals(specializations) && this.events.equals(events)) {
+            return this;
+        }
+        return new ReferenceSnapshot(version + 1, specializations, events);
+    }
+}
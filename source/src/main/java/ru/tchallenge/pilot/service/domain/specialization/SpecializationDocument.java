@@ -1,7 +1,6 @@
 package ru.tchallenge.pilot.service.domain.specialization;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.bson.Document;
 
@@ -27,9 +26,6 @@ public final class SpecializationDocument extends DocumentWrapper {
     }
 
     public List<ProblemCategory> getProblemCategories() {
-        return retrieveListOfStrings(ATTRIBUTE_PROBLEM_CATEGORIES)
-                .stream()
-                .map(ProblemCategory::valueOf)
-                .collect(Collectors.toList());
+        return retrieveListOfEnums(ATTRIBUTE_PROBLEM_CATEGORIES, ProblemCategory.class);
     }
 }
@@ -1,31 +1,31 @@
 package ru.tchallenge.pilot.service.domain.specialization;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import spark.Request;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceDataManager;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceSnapshot;
 
 @ManagedComponent
 public class SpecializationManager extends GenericApplicationComponent {
 
-    private SpecializationProjector specializationProjector;
-    private SpecializationRepository specializationRepository;
+    private ReferenceDataManager referenceDataManager;
 
     @Override
     public void init() {
         super.init();
-        this.specializationProjector = getComponent(SpecializationProjector.class);
-        this.specializationRepository = getComponent(SpecializationRepository.class);
+        this.referenceDataManager = getComponent(ReferenceDataManager.class);
+    }
+
+    /**
+     * Retrieves the reference snapshot specializations are served from, so their list and entity tag are consistent.
+     */
+    public ReferenceSnapshot retrieveSnapshot(Request request) {
+        return referenceDataManager.getSnapshot();
     }
 
-    public List<Specialization> retrieveByAll(Request request) {
-        return specializationRepository
-                .findAll()
-                .stream()
-                .map(specializationProjector::specialization)
-                .collect(Collectors.toList());
+    public Iterable<Specialization> retrieveByAll(Request request) {
+        return referenceDataManager.getSnapshot().getSpecializations();
     }
 }
@@ -1,8 +1,15 @@
 package ru.tchallenge.pilot.service.domain.specialization;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
+import com.google.common.collect.ImmutableList;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.Indexes;
+
 import static com.mongodb.client.model.Filters.in;
 
 import ru.tchallenge.pilot.service.context.ManagedComponent;
@@ -11,11 +18,10 @@ import ru.tchallenge.pilot.service.utility.data.GenericRepository;
 @ManagedComponent
 public class SpecializationRepository extends GenericRepository {
 
-    public List<SpecializationDocument> findAll() {
+    public MongoIterable<SpecializationDocument> findAll() {
         return documents()
                 .find()
-                .map(SpecializationDocument::new)
-                .into(new ArrayList<>());
+                .map(SpecializationDocument::new);
     }
 
     public List<SpecializationDocument> findByPermalinks(final List<String> permalinks) {
@@ -30,4 +36,16 @@ public class SpecializationRepository extends GenericRepository {
     protected String getCollectionName() {
         return "specializations";
     }
+
+    @Override
+    protected ReadPreference getReadPreference() {
+        return ReadPreference.secondaryPreferred();
+    }
+
+    @Override
+    protected Collection<IndexModel> getIndexes() {
+        return ImmutableList.of(
+                new IndexModel(Indexes.ascending("permalink"))
+        );
+    }
 }
@@ -7,6 +7,8 @@ import static spark.Spark.path;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceSnapshot;
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
 import ru.tchallenge.pilot.service.utility.serialization.Json;
 
 @ManagedComponent
@@ -23,7 +25,13 @@ public class SpecializationRouter extends GenericApplicationComponent implements
     @Override
     public void addRoutes() {
         path("/specializations", () -> {
-            get("/", (request, response) -> Json.json(specializationManager.retrieveByAll(request), response));
+            get("/", (request, response) -> {
+                final ReferenceSnapshot snapshot = specializationManager.retrieveSnapshot(request);
+                if (ConditionalRequests.notModified(request, response, snapshot.getEntityTag(), null)) {
+                    return "";
+                }
+                return Json.stream(snapshot.getSpecializations(), request, response);
+            });
         });
     }
 }
@@ -3,6 +3,7 @@ package ru.tchallenge.pilot.service.domain.workbook;
 import java.time.Instant;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 
@@ -24,4 +25,6 @@ public final class Workbook implements IdAware {
     private Maturity maturity;
     private final Instant submittableUntil;
     private final WorkbookStatus status;
+    @JsonIgnore
+    private final long version;
 }
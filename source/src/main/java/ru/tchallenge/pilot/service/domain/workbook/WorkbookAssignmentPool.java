@@ -0,0 +1,162 @@
+package ru.tchallenge.pilot.service.domain.workbook;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.domain.maturity.Maturity;
+import ru.tchallenge.pilot.service.domain.problem.ProblemCatalog;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceDataManager;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceSnapshot;
+import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentDocument;
+import ru.tchallenge.pilot.service.utility.batch.BatchManager;
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+/**
+ * Bounded pools of ready-made assignment sets per (event, specialization, maturity).
+ *
+ * A pool is created by the first claim for its key if the event and the specialization exist in the reference
+ * data, claims for other keys are generated inline. Pools are refilled in the background whenever they drop to half
+ * of their capacity, sets generated before the problem catalog or the reference data changed are discarded on claim.
+ * The number of pools is bounded, pools not claimed from for a while are dropped.
+ */
+@Slf4j
+@ManagedComponent
+public class WorkbookAssignmentPool extends GenericApplicationComponent {
+
+    private static final int CAPACITY = 20;
+    private static final long DEFAULT_MAX_POOLS = 256;
+    private static final long DEFAULT_IDLE_MINUTES = 60;
+
+    private static long environmentVariableAsLong(final String name, final long defaultValue) {
+        final String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? Long.parseLong(value) : defaultValue;
+    }
+
+    private Cache<Key, Pool> pools;
+    private BatchManager batchManager;
+    private ProblemCatalog problemCatalog;
+    private ReferenceDataManager referenceDataManager;
+
+    @Override
+    public void init() {
+        super.init();
+        this.batchManager = getComponent(BatchManager.class);
+        this.problemCatalog = getComponent(ProblemCatalog.class);
+        this.referenceDataManager = getComponent(ReferenceDataManager.class);
+        this.pools = CacheBuilder.newBuilder()
+                .maximumSize(environmentVariableAsLong("TCHALLENGE_WORKBOOK_POOL_MAX_POOLS", DEFAULT_MAX_POOLS))
+                .expireAfterAccess(environmentVariableAsLong("TCHALLENGE_WORKBOOK_POOL_IDLE_MINUTES", DEFAULT_IDLE_MINUTES), TimeUnit.MINUTES)
+                .<Key, Pool>removalListener(notification -> notification.getValue().retired = true)
+                .build();
+    }
+
+    /**
+     * Takes a pre-generated assignment set or generates one inline if the pool is empty.
+     *
+     * @param generator generates a fresh assignment set, also used to refill the pool in the background
+     */
+    public List<AssignmentDocument> claim(final WorkbookInvoice invoice,
+                                          final Function<WorkbookInvoice, List<AssignmentDocument>> generator) {
+        final ReferenceSnapshot snapshot = referenceDataManager.getSnapshot();
+        if (!poolable(invoice, snapshot)) {
+            return generator.apply(invoice);
+        }
+        final Key key = new Key(invoice.getEventId(), invoice.getSpecializationId(), invoice.getMaturity());
+        final Pool pool = pools.getIfPresent(key);
+        if (pool == null) {
+            final List<AssignmentDocument> result = generator.apply(invoice);
+            try {
+                pools.get(key, () -> new Pool(invoice, generator)).refillIfNeeded();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+            return result;
+        }
+        final long catalogVersion = problemCatalog.getVersion();
+        Entry entry;
+        while ((entry = pool.entries.poll()) != null) {
+            pool.size.decrementAndGet();
+            if (entry.catalogVersion == catalogVersion && entry.referenceVersion == snapshot.getVersion()) {
+                break;
+            }
+        }
+        pool.refillIfNeeded();
+        return entry != null ? entry.assignments : generator.apply(invoice);
+    }
+
+    private static boolean poolable(final WorkbookInvoice invoice, final ReferenceSnapshot snapshot) {
+        return invoice.getEventId() != null
+                && invoice.getSpecializationId() != null
+                && invoice.getMaturity() != null
+                && snapshot.event(invoice.getEventId()) != null
+                && snapshot.specialization(invoice.getSpecializationId()) != null;
+    }
+
+    @Data
+    private static final class Key {
+
+        private final Id eventId;
+        private final Id specializationId;
+        private final Maturity maturity;
+    }
+
+    private static final class Entry {
+
+        private final long catalogVersion;
+        private final long referenceVersion;
+        private final List<AssignmentDocument> assignments;
+
+        private Entry(final long catalogVersion, final long referenceVersion, final List<AssignmentDocument> assignments) {
+            this.catalogVersion = catalogVersion;
+            this.referenceVersion = referenceVersion;
+            this.assignments = assignments;
+        }
+    }
+
+    private final class Pool {
+
+        private final WorkbookInvoice invoice;
+        private final Function<WorkbookInvoice, List<AssignmentDocument>> generator;
+        private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private Pool(final WorkbookInvoice invoice, final Function<WorkbookInvoice, List<AssignmentDocument>> generator) {
+            this.invoice = invoice;
+            this.generator = generator;
+        }
+
+        private void refillIfNeeded() {
+            if (retired || size.get() > CAPACITY / 2 || !refilling.compareAndSet(false, true)) {
+                return;
+            }
+            batchManager.submit(() -> {
+                try {
+                    while (!retired && size.get() < CAPACITY) {
+                        final long catalogVersion = problemCatalog.getVersion();
+                        final long referenceVersion = referenceDataManager.getSnapshot().getVersion();
+                        entries.add(new Entry(catalogVersion, referenceVersion, generator.apply(invoice)));
+                        size.incrementAndGet();
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+}
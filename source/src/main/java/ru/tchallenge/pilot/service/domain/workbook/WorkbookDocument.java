@@ -3,9 +3,10 @@ package ru.tchallenge.pilot.service.domain.workbook;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import com.mongodb.client.model.Filters;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.domain.maturity.Maturity;
 import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentDocument;
@@ -14,33 +15,45 @@ import ru.tchallenge.pilot.service.utility.data.Id;
 
 public final class WorkbookDocument extends DocumentWrapper {
 
-    private static final String ATTRIBUTE_ASSIGNMENTS = "assignments";
-    private static final String ATTRIBUTE_EVENT_ID = "eventId";
-    private static final String ATTRIBUTE_SPECIALIZATION_ID = "specializationId";
-    private static final String ATTRIBUTE_OWNER_ID = "ownerId";
-    private static final String ATTRIBUTE_MATURITY = "maturity";
-    private static final String ATTRIBUTE_SUBMITTABLE_UNTIL = "submittableUntil";
-    private static final String ATTRIBUTE_STATUS = "status";
-    private static final String ATTRIBUTE_TEXTCODE = "textcode";
+    public static Bson filterByAssignmentIndex(final int index) {
+        return Filters.exists(ATTRIBUTE_ASSIGNMENTS + "." + index);
+    }
+
+    static final String ATTRIBUTE_ASSIGNMENTS = "assignments";
+    static final String ATTRIBUTE_EVENT_ID = "eventId";
+    static final String ATTRIBUTE_SPECIALIZATION_ID = "specializationId";
+    static final String ATTRIBUTE_OWNER_ID = "ownerId";
+    static final String ATTRIBUTE_MATURITY = "maturity";
+    static final String ATTRIBUTE_SUBMITTABLE_UNTIL = "submittableUntil";
+    static final String ATTRIBUTE_STATUS = "status";
+    static final String ATTRIBUTE_TEXTCODE = "textcode";
 
     public WorkbookDocument() {
 
     }
 
+    public WorkbookDocument(final Id id) {
+        super(id);
+    }
+
     public WorkbookDocument(final Document document) {
         super(document);
     }
 
+    /**
+     * Creates a write-only reference to the assignment at the given (zero-based) index, whose changes are tracked
+     * by this workbook without reading its assignments.
+     */
+    public AssignmentDocument assignmentReference(final int index) {
+        return nested(new AssignmentDocument(), ATTRIBUTE_ASSIGNMENTS, index);
+    }
+
     public List<AssignmentDocument> getAssignments() {
         return retrieveListOfDocuments(ATTRIBUTE_ASSIGNMENTS, AssignmentDocument::new);
     }
 
     public WorkbookDocument assignments(final List<AssignmentDocument> assignments) {
-        final List<Document> list = assignments
-                .stream()
-                .map(AssignmentDocument::getDocument)
-                .collect(Collectors.toList());
-        document.put(ATTRIBUTE_ASSIGNMENTS, list);
+        storeListOfDocuments(ATTRIBUTE_ASSIGNMENTS, assignments);
         return this;
     }
 
@@ -49,7 +62,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument eventId(final Id id) {
-        document.put(ATTRIBUTE_EVENT_ID, id.toObjectId());
+        store(ATTRIBUTE_EVENT_ID, id.toObjectId());
         return this;
     }
 
@@ -58,7 +71,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument specializationId(final Id id) {
-        document.put(ATTRIBUTE_SPECIALIZATION_ID, id.toObjectId());
+        store(ATTRIBUTE_SPECIALIZATION_ID, id.toObjectId());
         return this;
     }
 
@@ -67,7 +80,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument ownerId(final Id id) {
-        document.put(ATTRIBUTE_OWNER_ID, id.toObjectId());
+        store(ATTRIBUTE_OWNER_ID, id.toObjectId());
         return this;
     }
 
@@ -76,7 +89,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument maturity(final Maturity maturity) {
-        document.put(ATTRIBUTE_MATURITY, maturity.name());
+        store(ATTRIBUTE_MATURITY, maturity.name());
         return this;
     }
 
@@ -85,7 +98,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument submittableUntil(final Instant submittableUntil) {
-        document.put(ATTRIBUTE_SUBMITTABLE_UNTIL, Date.from(submittableUntil));
+        store(ATTRIBUTE_SUBMITTABLE_UNTIL, Date.from(submittableUntil));
         return this;
     }
 
@@ -94,7 +107,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument status(final WorkbookStatus status) {
-        document.put(ATTRIBUTE_STATUS, status.name());
+        store(ATTRIBUTE_STATUS, status.name());
         return this;
     }
 
@@ -103,7 +116,7 @@ public final class WorkbookDocument extends DocumentWrapper {
     }
 
     public WorkbookDocument textcode(String textcode) {
-        document.put(ATTRIBUTE_TEXTCODE, textcode);
+        store(ATTRIBUTE_TEXTCODE, textcode);
         return this;
     }
 }
@@ -11,16 +11,22 @@ import lombok.Data;
 import spark.Request;
 
 import com.google.common.collect.Sets;
+import com.mongodb.client.model.Filters;
+import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.domain.maturity.Maturity;
+import ru.tchallenge.pilot.service.domain.problem.ProblemCatalog;
 import ru.tchallenge.pilot.service.domain.problem.ProblemCategory;
 import ru.tchallenge.pilot.service.domain.problem.ProblemDifficulty;
-import ru.tchallenge.pilot.service.domain.problem.ProblemDocument;
 import ru.tchallenge.pilot.service.domain.problem.ProblemRandomInvoice;
-import ru.tchallenge.pilot.service.domain.problem.ProblemRepository;
+import ru.tchallenge.pilot.service.domain.problem.ProblemRecord;
+import ru.tchallenge.pilot.service.domain.problem.ProblemSampler;
+import ru.tchallenge.pilot.service.domain.reference.ReferenceDataManager;
+import ru.tchallenge.pilot.service.domain.specialization.Specialization;
 import ru.tchallenge.pilot.service.domain.specialization.SpecializationDocument;
+import ru.tchallenge.pilot.service.domain.specialization.SpecializationProjector;
 import ru.tchallenge.pilot.service.domain.specialization.SpecializationRepository;
 import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentDocument;
 import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentUpdateInvoice;
@@ -28,26 +34,43 @@ import ru.tchallenge.pilot.service.security.authentication.AuthenticationRequest
 import ru.tchallenge.pilot.service.utility.data.DocumentWrapper;
 import ru.tchallenge.pilot.service.utility.data.Id;
 import ru.tchallenge.pilot.service.utility.data.IdAware;
+import ru.tchallenge.pilot.service.utility.data.OptimisticConcurrency;
+import ru.tchallenge.pilot.service.utility.data.Sequence;
+import ru.tchallenge.pilot.service.utility.data.SequenceManager;
+import ru.tchallenge.pilot.service.utility.data.VersionConflictException;
 import ru.tchallenge.pilot.service.utility.mail.TemplateMailInvoice;
 import ru.tchallenge.pilot.service.utility.mail.TemplateMailManager;
+import ru.tchallenge.pilot.service.utility.serialization.Json;
 
 @ManagedComponent
 public class WorkbookManager extends GenericApplicationComponent {
 
+    private ReferenceDataManager referenceDataManager;
+    private SpecializationProjector specializationProjector;
     private SpecializationRepository specializationRepository;
-    private ProblemRepository problemRepository;
+    private ProblemSampler problemSampler;
+    private ProblemCatalog problemCatalog;
     private WorkbookProjector workbookProjector;
     private WorkbookRepository workbookRepository;
+    private WorkbookAssignmentPool workbookAssignmentPool;
+    private WorkbookProjectionCache workbookProjectionCache;
     private TemplateMailManager templateMailManager;
+    private Sequence textcodeSequence;
 
     @Override
     public void init() {
         super.init();
+        this.referenceDataManager = getComponent(ReferenceDataManager.class);
+        this.specializationProjector = getComponent(SpecializationProjector.class);
         this.specializationRepository = getComponent(SpecializationRepository.class);
-        this.problemRepository = getComponent(ProblemRepository.class);
+        this.problemSampler = getComponent(ProblemSampler.class);
+        this.problemCatalog = getComponent(ProblemCatalog.class);
         this.workbookProjector = getComponent(WorkbookProjector.class);
         this.workbookRepository = getComponent(WorkbookRepository.class);
+        this.workbookAssignmentPool = getComponent(WorkbookAssignmentPool.class);
+        this.workbookProjectionCache = getComponent(WorkbookProjectionCache.class);
         this.templateMailManager = getComponent(TemplateMailManager.class);
+        this.textcodeSequence = getComponent(SequenceManager.class).sequence("workbookTextcode", () -> workbookRepository.count());
     }
 
     public IdAware create(Request request, WorkbookInvoice invoice) {
@@ -57,8 +80,37 @@ public class WorkbookManager extends GenericApplicationComponent {
         return workbookDocument.justId();
     }
 
-    public Workbook retrieveById(Request request, Id id) {
-        return workbookProjector.workbook(get(request, id));
+    /**
+     * Retrieves the serialized workbook. Workbooks known to be immutable are checked by version only
+     * and served from the projection cache, others are read and projected as usual. The problems embedded
+     * are those of the catalog version read up front, so a catalog change invalidates the projection.
+     */
+    public WorkbookRepresentation retrieveRepresentationById(Request request, Id id) {
+        final long catalogVersion = problemCatalog.getVersion();
+        final String catalogRevision = problemCatalog.revision(catalogVersion);
+        if (workbookProjectionCache.contains(id)) {
+            final DocumentWrapper state = workbookRepository.findById(id, WorkbookRepository.PROJECTION_VERSION);
+            if (state == null) {
+                throw new RuntimeException("Workbook is not found");
+            }
+            final byte[] json = workbookProjectionCache.get(id, state.getVersion(), catalogVersion);
+            if (json != null) {
+                return new WorkbookRepresentation(state.getVersion(), catalogRevision, () -> json);
+            }
+        }
+        final WorkbookRecord record = workbookRepository.findRecordById(id);
+        if (record == null) {
+            throw new RuntimeException("Workbook is not found");
+        }
+        return new WorkbookRepresentation(record.getVersion(), catalogRevision, () -> serialize(record, catalogVersion));
+    }
+
+    private byte[] serialize(final WorkbookRecord record, final long catalogVersion) {
+        final byte[] json = Json.bytes(workbookProjector.workbook(record));
+        if (workbookProjector.immutableByStatus(record.getStatus())) {
+            workbookProjectionCache.put(record.getId(), record.getVersion(), catalogVersion, json);
+        }
+        return json;
     }
 
     private WorkbookDocument get(Request request, Id id) {
@@ -69,27 +121,71 @@ public class WorkbookManager extends GenericApplicationComponent {
         return new WorkbookDocument(document.getDocument());
     }
 
-    public void updateAssignment(Request request, Id id, Integer index, AssignmentUpdateInvoice invoice) {
-        final WorkbookDocument workbookDocument = get(request, id);
-        workbookDocument.getAssignments().get(index - 1).setSolution(invoice.getSolution());
-        workbookRepository.replace(workbookDocument);
+    /**
+     * Updates the solution of a single assignment.
+     *
+     * @param expectedVersion version the client has seen, null to update regardless of concurrent changes
+     * @return new version of the workbook
+     */
+    public long updateAssignment(Request request, Id id, Integer index, Long expectedVersion, AssignmentUpdateInvoice invoice) {
+        if (index < 1) {
+            throw new RuntimeException("Assignment is not found");
+        }
+        final WorkbookDocument workbookDocument = new WorkbookDocument(id);
+        workbookDocument.assignmentReference(index - 1).setSolution(invoice.getSolution());
+        Bson condition = WorkbookDocument.filterByAssignmentIndex(index - 1);
+        if (expectedVersion != null) {
+            condition = Filters.and(condition, DocumentWrapper.filterByVersion(expectedVersion));
+        }
+        if (!workbookRepository.update(workbookDocument, condition)) {
+            if (expectedVersion != null) {
+                throw workbookVersionConflict();
+            }
+            throw new RuntimeException("Workbook or assignment is not found");
+        }
+        return workbookDocument.getVersion();
+    }
+
+    /**
+     * Updates the status, assessing the workbook on submission. Without an expected version the
+     * read-assess-write cycle is retried on concurrent modification.
+     *
+     * @param expectedVersion version the client has seen, null to update regardless of concurrent changes
+     * @return new version of the workbook
+     */
+    public long updateStatus(Request request, Id id, Long expectedVersion, WorkbookStatusUpdateInvoice invoice) {
+        if (expectedVersion != null) {
+            final Long version = tryUpdateStatus(request, id, expectedVersion, invoice);
+            if (version == null) {
+                throw workbookVersionConflict();
+            }
+            return version;
+        }
+        return OptimisticConcurrency.retry(() -> tryUpdateStatus(request, id, null, invoice));
     }
 
-    public void updateStatus(Request request, Id id, WorkbookStatusUpdateInvoice invoice) {
+    private Long tryUpdateStatus(Request request, Id id, Long expectedVersion, WorkbookStatusUpdateInvoice invoice) {
         final WorkbookDocument workbookDocument = get(request, id);
+        if (expectedVersion != null && workbookDocument.getVersion() != expectedVersion) {
+            return null;
+        }
         workbookDocument.status(invoice.getStatus());
         if (invoice.getStatus() == WorkbookStatus.SUBMITTED) {
             assessWorkbook(workbookDocument);
         }
-        workbookRepository.replace(workbookDocument);
+        return workbookRepository.compareAndUpdate(workbookDocument) ? workbookDocument.getVersion() : null;
+    }
+
+    private VersionConflictException workbookVersionConflict() {
+        return new VersionConflictException("Workbook has been modified concurrently");
     }
 
     private void assessWorkbook(final WorkbookDocument workbookDocument) {
         final List<AssignmentDocument> assignmentDocuments = workbookDocument.getAssignments();
-        final Map<Id, ProblemDocument> problemDocuments = problemDocuments(assignmentDocuments);
+        final Map<Id, ProblemRecord> problemRecords = problemRecords(assignmentDocuments);
         for (final AssignmentDocument assignmentDocument : assignmentDocuments) {
-            final ProblemDocument problemDocument = problemDocuments.get(assignmentDocument.getProblemId());
-            if (matchSolution(assignmentDocument.getSolution(), problemDocument)) {
+            final ProblemRecord problemRecord = problemRecords.get(assignmentDocument.getProblemId());
+            if (matchSolution(assignmentDocument.getSolution(), problemRecord)) {
                 assignmentDocument.setScore(assignmentDocument.getScoreMax());
             } else {
                 assignmentDocument.setScore(0);
@@ -97,37 +193,37 @@ public class WorkbookManager extends GenericApplicationComponent {
         }
     }
 
-    private boolean matchSolution(final String solution, final ProblemDocument problemDocument) {
-        switch (problemDocument.getExpectation()) {
+    private boolean matchSolution(final String solution, final ProblemRecord problemRecord) {
+        switch (problemRecord.getExpectation()) {
             case NUMBER:
             case TEXT:
             case STRING:
             case CODE:
-                return solution.equals(problemDocument.getOptions().get(0).getContent());
+                return solution.equals(problemRecord.getOptions().get(0).getContent());
             case SINGLE:
             case MULTIPLE:
-                final String optionSolution = optionSolution(problemDocument);
+                final String optionSolution = optionSolution(problemRecord);
                 return solution.equals(optionSolution);
             default:
                 return false;
         }
     }
 
-    private String optionSolution(final ProblemDocument problemDocument) {
+    private String optionSolution(final ProblemRecord problemRecord) {
         final StringBuilder result = new StringBuilder();
-        problemDocument.getOptions().stream().forEach(o -> result.append(o.getCorrect() ? 1 : 0));
+        problemRecord.getOptions().stream().forEach(o -> result.append(o.getCorrect() ? 1 : 0));
         return result.toString();
     }
 
-    private Map<Id, ProblemDocument> problemDocuments(final List<AssignmentDocument> assignmentDocuments) {
+    private Map<Id, ProblemRecord> problemRecords(final List<AssignmentDocument> assignmentDocuments) {
         final List<Id> ids = assignmentDocuments
                 .stream()
                 .map(AssignmentDocument::getProblemId)
                 .collect(Collectors.toList());
-        return problemRepository
-                .findByIds(ids)
+        return problemCatalog
+                .getAll(ids)
                 .stream()
-                .collect(Collectors.toMap(ProblemDocument::getId, p -> p));
+                .collect(Collectors.toMap(ProblemRecord::getId, p -> p));
     }
 
     private WorkbookDocument prepareNewWorkbook(Request request, final WorkbookInvoice invoice) {
@@ -138,7 +234,7 @@ public class WorkbookManager extends GenericApplicationComponent {
         final Maturity maturity = invoice.getMaturity();
         return new WorkbookDocument()
                 .textcode(generateTextcode())
-                .assignments(prepareNewAssignments(invoice))
+                .assignments(workbookAssignmentPool.claim(invoice, this::prepareNewAssignments))
                 .ownerId(ownerId)
                 .eventId(eventId)
                 .specializationId(specializationId)
@@ -149,18 +245,18 @@ public class WorkbookManager extends GenericApplicationComponent {
 
     private List<AssignmentDocument> prepareNewAssignments(final WorkbookInvoice invoice) {
         final ProblemRandomInvoice randomInvoice = problemRandomInvoice(invoice);
-        final List<ProblemDocument> problemDocuments = problemRepository.findRandom(randomInvoice);
-        return problemDocuments
+        final List<ProblemRecord> problemRecords = problemSampler.sample(randomInvoice);
+        return problemRecords
                 .stream()
                 .map(this::assignmentByProblem)
                 .collect(Collectors.toList());
     }
 
-    private AssignmentDocument assignmentByProblem(final ProblemDocument problemDocument) {
+    private AssignmentDocument assignmentByProblem(final ProblemRecord problemRecord) {
         final AssignmentDocument result = new AssignmentDocument();
-        result.setProblemId(problemDocument.getId());
+        result.setProblemId(problemRecord.getId());
         result.setScore(0);
-        result.setScoreMax(scoreMaxByDifficulty(problemDocument.getDifficulty()));
+        result.setScoreMax(scoreMaxByDifficulty(problemRecord.getDifficulty()));
         result.setSolution(null);
         return result;
     }
@@ -189,12 +285,15 @@ public class WorkbookManager extends GenericApplicationComponent {
     }
 
     private Set<ProblemCategory> categoriesBySpecializationId(final Id specializationId) {
-        final DocumentWrapper doc = specializationRepository.findById(specializationId);
-        if (doc == null) {
-            throw new RuntimeException("Specialization is not found");
+        Specialization specialization = referenceDataManager.getSnapshot().specialization(specializationId);
+        if (specialization == null) {
+            final DocumentWrapper doc = specializationRepository.findById(specializationId);
+            if (doc == null) {
+                throw new RuntimeException("Specialization is not found");
+            }
+            specialization = specializationProjector.specialization(new SpecializationDocument(doc.getDocument()));
         }
-        final SpecializationDocument specializationDocument = new SpecializationDocument(doc.getDocument());
-        return Sets.newHashSet(specializationDocument.getProblemCategories());
+        return Sets.newHashSet(specialization.getProblemCategories());
     }
 
     private ProblemDifficulty difficultyByMaturity(final Maturity maturity) {
@@ -243,7 +342,7 @@ public class WorkbookManager extends GenericApplicationComponent {
     }
 
     private String generateTextcode() {
-        long serial = 1000 + this.workbookRepository.count() + 1;
+        long serial = 1000 + this.textcodeSequence.next();
         long salt = System.currentTimeMillis() % 100;
         return String.format("%s-%s", serial, salt);
     }
@@ -0,0 +1,87 @@
+package ru.tchallenge.pilot.service.domain.workbook;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.cache.CacheStatistics;
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+/**
+ * Serialized projections of workbooks which can no longer change, i.e. submitted or assessed ones.
+ *
+ * A single entry is kept per workbook and is valid only for the workbook version and the problem catalog version
+ * it was projected from, the cache is bounded by the total size of the serialized projections.
+ */
+@ManagedComponent
+public class WorkbookProjectionCache extends GenericApplicationComponent {
+
+    private static final long DEFAULT_MAX_SIZE_MB = 32;
+
+    private static long environmentVariableAsLong(final String name, final long defaultValue) {
+        final String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? Long.parseLong(value) : defaultValue;
+    }
+
+    private Cache<Id, Projection> projections;
+
+    @Override
+    public void init() {
+        super.init();
+        final long maxSizeMb = environmentVariableAsLong("TCHALLENGE_WORKBOOK_PROJECTION_CACHE_MB", DEFAULT_MAX_SIZE_MB);
+        this.projections = CacheBuilder.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .<Id, Projection>weigher((id, projection) -> projection.json.length)
+                .recordStats()
+                .build();
+    }
+
+    public boolean contains(final Id id) {
+        return projections.asMap().containsKey(id);
+    }
+
+    /**
+     * @return serialized projection of the workbook version with problems of the catalog version,
+     * null if it is not cached
+     */
+    public byte[] get(final Id id, final long version, final long catalogVersion) {
+        final Projection projection = projections.getIfPresent(id);
+        if (projection == null) {
+            return null;
+        }
+        if (projection.version != version || projection.catalogVersion != catalogVersion) {
+            projections.asMap().remove(id, projection);
+            return null;
+        }
+        return projection.json;
+    }
+
+    public void put(final Id id, final long version, final long catalogVersion, final byte[] json) {
+        projections.put(id, new Projection(version, catalogVersion, json));
+    }
+
+    public CacheStatistics getStatistics() {
+        final CacheStats stats = projections.stats();
+        return CacheStatistics.builder()
+                .size(projections.size())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+
+    private static final class Projection {
+
+        private final long version;
+        private final long catalogVersion;
+        private final byte[] json;
+
+        private Projection(final long version, final long catalogVersion, final byte[] json) {
+            this.version = version;
+            this.catalogVersion = catalogVersion;
+            this.json = json;
+        }
+    }
+}
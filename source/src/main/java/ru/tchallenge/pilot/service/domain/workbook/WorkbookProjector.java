@@ -5,14 +5,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.bson.Document;
-
 import ru.tchallenge.pilot.service.context.ManagedComponent;
-import ru.tchallenge.pilot.service.domain.problem.ProblemDocument;
-import ru.tchallenge.pilot.service.domain.problem.ProblemRepository;
+import ru.tchallenge.pilot.service.domain.problem.ProblemCatalog;
+import ru.tchallenge.pilot.service.domain.problem.ProblemRecord;
 import ru.tchallenge.pilot.service.domain.workbook.assignment.Assignment;
-import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentDocument;
 import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentProjector;
+import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentRecord;
 import ru.tchallenge.pilot.service.utility.data.GenericProjector;
 import ru.tchallenge.pilot.service.utility.data.Id;
 
@@ -20,43 +18,64 @@ import ru.tchallenge.pilot.service.utility.data.Id;
 public class WorkbookProjector extends GenericProjector {
 
     private AssignmentProjector assignmentProjector;
-    private ProblemRepository problemRepository;
+    private ProblemCatalog problemCatalog;
 
     @Override
     public void init() {
         super.init();
         this.assignmentProjector = getComponent(AssignmentProjector.class);
-        this.problemRepository = getComponent(ProblemRepository.class);
+        this.problemCatalog = getComponent(ProblemCatalog.class);
     }
 
-    public Workbook workbook(final WorkbookDocument document) {
-        final WorkbookStatus status = document.getStatus();
+    public Workbook workbook(final WorkbookRecord record) {
+        final List<ProblemRecord> problemRecords = problemCatalog.getAll(problemIds(record));
+        final WorkbookStatus status = record.getStatus();
         final boolean classified = classifiedByStatus(status);
         return Workbook.builder()
-                .id(document.getId())
-                .textcode(document.getTextcode())
-                .eventId(document.getEventId())
-                .specializationId(document.getSpecializationId())
-                .ownerId(document.getOwnerId())
-                .maturity(document.getMaturity())
-                .assignments(immutableList(assignments(document, classified)))
-                .submittableUntil(document.getSubmittableUntil())
+                .id(record.getId())
+                .textcode(record.getTextcode())
+                .eventId(record.getEventId())
+                .specializationId(record.getSpecializationId())
+                .ownerId(record.getOwnerId())
+                .maturity(record.getMaturity())
+                .assignments(immutableList(assignments(record, problemRecords, classified)))
+                .submittableUntil(record.getSubmittableUntil())
                 .status(status)
+                .version(record.getVersion())
                 .build();
     }
 
+    /**
+     * Projections of submitted and assessed workbooks never change until the workbook itself does.
+     */
+    public boolean immutableByStatus(final WorkbookStatus status) {
+        return status == WorkbookStatus.ASSESSED || status == WorkbookStatus.SUBMITTED;
+    }
+
     private boolean classifiedByStatus(final WorkbookStatus status) {
-        return !(status == WorkbookStatus.ASSESSED || status == WorkbookStatus.SUBMITTED);
+        return !immutableByStatus(status);
+    }
+
+    private List<Id> problemIds(final WorkbookRecord record) {
+        return record
+                .getAssignments()
+                .stream()
+                .map(AssignmentRecord::getProblemId)
+                .collect(Collectors.toList());
     }
 
-    private List<Assignment> assignments(final WorkbookDocument document, final boolean classified) {
+    private List<Assignment> assignments(final WorkbookRecord record,
+                                         final List<ProblemRecord> problemRecordList,
+                                         final boolean classified) {
         final List<Assignment> result = new ArrayList<>();
-        final List<AssignmentDocument> assignmentDocuments = document.getAssignments();
-        final Map<Id, ProblemDocument> problemDocuments = problemDocuments(assignmentDocuments);
+        final List<AssignmentRecord> assignmentRecords = record.getAssignments();
+        final Map<Id, ProblemRecord> problemRecords = problemRecordList
+                .stream()
+                .collect(Collectors.toMap(ProblemRecord::getId, p -> p));
         final Indexer indexer = new Indexer();
-        for (final AssignmentDocument assignmentDocument : assignmentDocuments) {
-            final ProblemDocument problemDocument = problemDocuments.get(assignmentDocument.getProblemId());
-            final Assignment assignment = assignmentProjector.assignment(assignmentDocument, problemDocument, classified, indexer.inc());
+        for (final AssignmentRecord assignmentRecord : assignmentRecords) {
+            final ProblemRecord problemRecord = problemRecords.get(assignmentRecord.getProblemId());
+            final Assignment assignment = assignmentProjector.assignment(assignmentRecord, problemRecord, classified, indexer.inc());
             result.add(assignment);
         }
         return result;
@@ -70,20 +89,4 @@ public class WorkbookProjector extends GenericProjector {
             return ++index;
         }
     }
-
-    @SuppressWarnings("unchecked")
-    private List<Document> assignmentDocuments(final Document workbookDocument) {
-        return (List<Document>) workbookDocument.get("assignments");
-    }
-
-    private Map<Id, ProblemDocument> problemDocuments(final List<AssignmentDocument> assignmentDocuments) {
-        final List<Id> ids = assignmentDocuments
-                .stream()
-                .map(AssignmentDocument::getProblemId)
-                .collect(Collectors.toList());
-        return problemRepository
-                .findByIds(ids)
-                .stream()
-                .collect(Collectors.toMap(ProblemDocument::getId, p -> p));
-    }
 }
@@ -0,0 +1,32 @@
+package ru.tchallenge.pilot.service.domain.workbook;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Data;
+
+import com.google.common.collect.ImmutableList;
+
+import ru.tchallenge.pilot.service.domain.maturity.Maturity;
+import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentRecord;
+import ru.tchallenge.pilot.service.utility.data.Id;
+import ru.tchallenge.pilot.service.utility.data.IdAware;
+
+@Data
+@Builder
+public final class WorkbookRecord implements IdAware {
+
+    private final Id id;
+    private final String textcode;
+    @Builder.Default
+    private final ImmutableList<AssignmentRecord> assignments = ImmutableList.of();
+    private final Id eventId;
+    private final Id specializationId;
+    private final Id ownerId;
+    private final Maturity maturity;
+    private final Instant submittableUntil;
+    private final WorkbookStatus status;
+    private final Instant createdAt;
+    private final Instant lastModifiedAt;
+    private final long version;
+}
@@ -0,0 +1,92 @@
+package ru.tchallenge.pilot.service.domain.workbook;
+
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import ru.tchallenge.pilot.service.domain.maturity.Maturity;
+import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentRecordCodec;
+import ru.tchallenge.pilot.service.utility.data.GenericCodec;
+
+public final class WorkbookRecordCodec extends GenericCodec<WorkbookRecord, WorkbookRecord.WorkbookRecordBuilder> {
+
+    private final AssignmentRecordCodec assignmentCodec = new AssignmentRecordCodec();
+
+    public WorkbookRecordCodec() {
+        super(WorkbookRecord.class);
+    }
+
+    @Override
+    protected WorkbookRecord.WorkbookRecordBuilder builder() {
+        return WorkbookRecord.builder();
+    }
+
+    @Override
+    protected boolean decodeAttribute(final WorkbookRecord.WorkbookRecordBuilder builder,
+                                      final String attribute,
+                                      final BsonReader reader,
+                                      final DecoderContext context) {
+        switch (attribute) {
+            case ATTRIBUTE_ID:
+                builder.id(readId(reader));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_TEXTCODE:
+                builder.textcode(readString(reader));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_ASSIGNMENTS:
+                builder.assignments(readList(reader, context, assignmentCodec));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_EVENT_ID:
+                builder.eventId(readId(reader));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_SPECIALIZATION_ID:
+                builder.specializationId(readId(reader));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_OWNER_ID:
+                builder.ownerId(readId(reader));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_MATURITY:
+                builder.maturity(readEnum(reader, Maturity.class));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_SUBMITTABLE_UNTIL:
+                builder.submittableUntil(readInstant(reader));
+                return true;
+            case WorkbookDocument.ATTRIBUTE_STATUS:
+                builder.status(readEnum(reader, WorkbookStatus.class));
+                return true;
+            case ATTRIBUTE_CREATED_AT:
+                builder.createdAt(readInstant(reader));
+                return true;
+            case ATTRIBUTE_LAST_MODIFIED_AT:
+                builder.lastModifiedAt(readInstant(reader));
+                return true;
+            case ATTRIBUTE_VERSION:
+                builder.version(readLong(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected WorkbookRecord build(final WorkbookRecord.WorkbookRecordBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    protected void encodeAttributes(final BsonWriter writer, final WorkbookRecord value, final EncoderContext context) {
+        writeId(writer, ATTRIBUTE_ID, value.getId());
+        writeString(writer, WorkbookDocument.ATTRIBUTE_TEXTCODE, value.getTextcode());
+        writeList(writer, WorkbookDocument.ATTRIBUTE_ASSIGNMENTS, value.getAssignments(), context, assignmentCodec);
+        writeId(writer, WorkbookDocument.ATTRIBUTE_EVENT_ID, value.getEventId());
+        writeId(writer, WorkbookDocument.ATTRIBUTE_SPECIALIZATION_ID, value.getSpecializationId());
+        writeId(writer, WorkbookDocument.ATTRIBUTE_OWNER_ID, value.getOwnerId());
+        writeEnum(writer, WorkbookDocument.ATTRIBUTE_MATURITY, value.getMaturity());
+        writeInstant(writer, WorkbookDocument.ATTRIBUTE_SUBMITTABLE_UNTIL, value.getSubmittableUntil());
+        writeEnum(writer, WorkbookDocument.ATTRIBUTE_STATUS, value.getStatus());
+        writeInstant(writer, ATTRIBUTE_CREATED_AT, value.getCreatedAt());
+        writeInstant(writer, ATTRIBUTE_LAST_MODIFIED_AT, value.getLastModifiedAt());
+        writeLong(writer, ATTRIBUTE_VERSION, value.getVersion());
+    }
+}
@@ -1,13 +1,53 @@
 package ru.tchallenge.pilot.service.domain.workbook;
 
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import org.bson.conversions.Bson;
+
 import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.utility.data.GenericRepository;
+import ru.tchallenge.pilot.service.utility.data.Id;
 
 @ManagedComponent
 public class WorkbookRepository extends GenericRepository {
 
+    public static final String PROJECTION_VERSION = "version";
+
+    static final Map<String, Bson> PROJECTIONS = ImmutableMap.of(
+            PROJECTION_VERSION, Projections.include("version")
+    );
+
+    public WorkbookRecord findRecordById(final Id id) {
+        return findRecordById(id, WorkbookRecord.class);
+    }
+
     @Override
     protected String getCollectionName() {
         return "workbooks";
     }
+
+    @Override
+    protected WriteConcern getWriteConcern() {
+        return WriteConcern.MAJORITY;
+    }
+
+    @Override
+    protected Collection<IndexModel> getIndexes() {
+        return ImmutableList.of(
+                new IndexModel(Indexes.ascending(WorkbookDocument.ATTRIBUTE_OWNER_ID, WorkbookDocument.ATTRIBUTE_EVENT_ID)),
+                new IndexModel(Indexes.ascending(WorkbookDocument.ATTRIBUTE_EVENT_ID, WorkbookDocument.ATTRIBUTE_SPECIALIZATION_ID))
+        );
+    }
+
+    @Override
+    protected Map<String, Bson> getProjections() {
+        return PROJECTIONS;
+    }
 }
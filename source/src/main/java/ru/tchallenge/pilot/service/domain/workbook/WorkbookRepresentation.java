@@ -0,0 +1,36 @@
+package ru.tchallenge.pilot.service.domain.workbook;
+
+import java.util.function.Supplier;
+
+import ru.tchallenge.pilot.service.utility.http.EntityTags;
+
+/**
+ * Serialized workbook along with its version and the revision of the problem catalog it embeds problems of.
+ * The projection is built on first access only, so a request whose validator matches never pays for it.
+ */
+public final class WorkbookRepresentation {
+
+    private final long version;
+    private final String catalogRevision;
+    private Supplier<byte[]> json;
+
+    WorkbookRepresentation(final long version, final String catalogRevision, final Supplier<byte[]> json) {
+        this.version = version;
+        this.catalogRevision = catalogRevision;
+        this.json = json;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEntityTag() {
+        return EntityTags.of(version, catalogRevision);
+    }
+
+    public byte[] getJson() {
+        final byte[] result = json.get();
+        json = () -> result;
+        return result;
+    }
+}
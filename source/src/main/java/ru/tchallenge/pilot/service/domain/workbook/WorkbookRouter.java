@@ -5,6 +5,7 @@ import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentUpdateInvoice;
 import ru.tchallenge.pilot.service.utility.data.Id;
 import ru.tchallenge.pilot.service.utility.data.IdAware;
+import ru.tchallenge.pilot.service.utility.http.EntityTags;
 import ru.tchallenge.pilot.service.utility.serialization.Json;
 
 import spark.RouteGroup;
@@ -28,26 +29,35 @@ public class WorkbookRouter extends GenericApplicationComponent implements Route
             post("/", (request, response) -> {
                 final WorkbookInvoice invoice = Json.body(WorkbookInvoice.class, request);
                 final IdAware idAware = workbookManager.create(request, invoice);
-                return Json.json(idAware.justId(), response);
+                return Json.json(idAware.justId(), request, response);
             });
             path("/:id", () -> {
                 get("", (request, response) -> {
                     final Id id = new Id(request.params("id"));
-                    final Workbook workbook = workbookManager.retrieveById(request, id);
-                    return Json.json(workbook, response);
+                    final WorkbookRepresentation representation = workbookManager.retrieveRepresentationById(request, id);
+                    response.header(EntityTags.HEADER_ETAG, representation.getEntityTag());
+                    if (EntityTags.noneMatch(request, representation.getEntityTag())) {
+                        response.status(304);
+                        return "";
+                    }
+                    return Json.serialized(representation.getJson(), request, response);
                 });
                 put("/assignments/:index", (request, response) -> {
                     final Id id = new Id(request.params("id"));
                     final Integer index = Integer.parseInt(request.params("index"));
                     final AssignmentUpdateInvoice invoice = Json.body(AssignmentUpdateInvoice.class, request);
-                    workbookManager.updateAssignment(request, id, index, invoice);
-                    return Json.json(response);
+                    final Long expectedVersion = EntityTags.expectedVersion(request);
+                    final long version = workbookManager.updateAssignment(request, id, index, expectedVersion, invoice);
+                    EntityTags.tag(response, version);
+                    return Json.json(request, response);
                 });
                 put("/status", (request, response) -> {
                     final Id id = new Id(request.params("id"));
                     final WorkbookStatusUpdateInvoice invoice = Json.body(WorkbookStatusUpdateInvoice.class, request);
-                    workbookManager.updateStatus(request, id, invoice);
-                    return Json.json(response);
+                    final Long expectedVersion = EntityTags.expectedVersion(request);
+                    final long version = workbookManager.updateStatus(request, id, expectedVersion, invoice);
+                    EntityTags.tag(response, version);
+                    return Json.json(request, response);
                 });
             });
         });
@@ -7,10 +7,10 @@ import ru.tchallenge.pilot.service.utility.data.Id;
 
 public final class AssignmentDocument extends DocumentWrapper {
 
-    private static final String ATTRIBUTE_PROBLEM_ID = "problemId";
-    private static final String ATTRIBUTE_SCORE = "score";
-    private static final String ATTRIBUTE_SCORE_MAX = "scoreMax";
-    private static final String ATTRIBUTE_SOLUTION = "solution";
+    static final String ATTRIBUTE_PROBLEM_ID = "problemId";
+    static final String ATTRIBUTE_SCORE = "score";
+    static final String ATTRIBUTE_SCORE_MAX = "scoreMax";
+    static final String ATTRIBUTE_SOLUTION = "solution";
 
     public AssignmentDocument() {
 
@@ -25,7 +25,7 @@ public final class AssignmentDocument extends DocumentWrapper {
     }
 
     public void setProblemId(final Id problemId) {
-        document.put(ATTRIBUTE_PROBLEM_ID, problemId.toObjectId());
+        store(ATTRIBUTE_PROBLEM_ID, problemId.toObjectId());
     }
 
     public Integer getScore() {
@@ -33,7 +33,7 @@ public final class AssignmentDocument extends DocumentWrapper {
     }
 
     public void setScore(final Integer score) {
-        document.put(ATTRIBUTE_SCORE, score);
+        store(ATTRIBUTE_SCORE, score);
     }
 
     public Integer getScoreMax() {
@@ -41,7 +41,7 @@ public final class AssignmentDocument extends DocumentWrapper {
     }
 
     public void setScoreMax(final Integer scoreMax) {
-        document.put(ATTRIBUTE_SCORE_MAX, scoreMax);
+        store(ATTRIBUTE_SCORE_MAX, scoreMax);
     }
 
     public String getSolution() {
@@ -49,6 +49,6 @@ public final class AssignmentDocument extends DocumentWrapper {
     }
 
     public void setSolution(final String solution) {
-        document.put(ATTRIBUTE_SOLUTION, solution);
+        store(ATTRIBUTE_SOLUTION, solution);
     }
 }
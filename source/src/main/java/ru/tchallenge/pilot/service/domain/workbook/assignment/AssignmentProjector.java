@@ -1,8 +1,8 @@
 package ru.tchallenge.pilot.service.domain.workbook.assignment;
 
 import ru.tchallenge.pilot.service.context.ManagedComponent;
-import ru.tchallenge.pilot.service.domain.problem.ProblemDocument;
 import ru.tchallenge.pilot.service.domain.problem.ProblemProjector;
+import ru.tchallenge.pilot.service.domain.problem.ProblemRecord;
 import ru.tchallenge.pilot.service.utility.data.GenericProjector;
 
 @ManagedComponent
@@ -16,16 +16,16 @@ public class AssignmentProjector extends GenericProjector {
         this.problemProjector = getComponent(ProblemProjector.class);
     }
 
-    public Assignment assignment(final AssignmentDocument assignmentDocument,
-                                 final ProblemDocument problemDocument,
+    public Assignment assignment(final AssignmentRecord assignmentRecord,
+                                 final ProblemRecord problemRecord,
                                  final boolean classified,
                                  final int index) {
         return Assignment.builder()
                 .index(index)
-                .problem(problemProjector.problem(problemDocument, classified))
-                .score(assignmentDocument.getScore())
-                .scoreMax(assignmentDocument.getScoreMax())
-                .solution(assignmentDocument.getSolution())
+                .problem(problemProjector.problem(problemRecord, classified))
+                .score(assignmentRecord.getScore())
+                .scoreMax(assignmentRecord.getScoreMax())
+                .solution(assignmentRecord.getSolution())
                 .build();
     }
 }
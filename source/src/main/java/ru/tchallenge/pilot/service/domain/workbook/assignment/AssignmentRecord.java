@@ -0,0 +1,16 @@
+package ru.tchallenge.pilot.service.domain.workbook.assignment;
+
+import lombok.Builder;
+import lombok.Data;
+
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+@Data
+@Builder
+public final class AssignmentRecord {
+
+    private final Id problemId;
+    private final Integer score;
+    private final Integer scoreMax;
+    private final String solution;
+}
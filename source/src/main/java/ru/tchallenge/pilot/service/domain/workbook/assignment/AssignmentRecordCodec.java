@@ -0,0 +1,56 @@
+package ru.tchallenge.pilot.service.domain.workbook.assignment;
+
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import ru.tchallenge.pilot.service.utility.data.GenericCodec;
+
+public final class AssignmentRecordCodec extends GenericCodec<AssignmentRecord, AssignmentRecord.AssignmentRecordBuilder> {
+
+    public AssignmentRecordCodec() {
+        super(AssignmentRecord.class);
+    }
+
+    @Override
+    protected AssignmentRecord.AssignmentRecordBuilder builder() {
+        return AssignmentRecord.builder();
+    }
+
+    @Override
+    protected boolean decodeAttribute(final AssignmentRecord.AssignmentRecordBuilder builder,
+                                      final String attribute,
+                                      final BsonReader reader,
+                                      final DecoderContext context) {
+        switch (attribute) {
+            case AssignmentDocument.ATTRIBUTE_PROBLEM_ID:
+                builder.problemId(readId(reader));
+                return true;
+            case AssignmentDocument.ATTRIBUTE_SCORE:
+                builder.score(readInteger(reader));
+                return true;
+            case AssignmentDocument.ATTRIBUTE_SCORE_MAX:
+                builder.scoreMax(readInteger(reader));
+                return true;
+            case AssignmentDocument.ATTRIBUTE_SOLUTION:
+                builder.solution(readString(reader));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected AssignmentRecord build(final AssignmentRecord.AssignmentRecordBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    protected void encodeAttributes(final BsonWriter writer, final AssignmentRecord value, final EncoderContext context) {
+        writeId(writer, AssignmentDocument.ATTRIBUTE_PROBLEM_ID, value.getProblemId());
+        writeInteger(writer, AssignmentDocument.ATTRIBUTE_SCORE, value.getScore());
+        writeInteger(writer, AssignmentDocument.ATTRIBUTE_SCORE_MAX, value.getScoreMax());
+        writeString(writer, AssignmentDocument.ATTRIBUTE_SOLUTION, value.getSolution());
+    }
+}
@@ -1,7 +1,10 @@
 package ru.tchallenge.pilot.service.security.authentication;
 
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import org.bson.Document;
 
@@ -9,6 +12,7 @@ import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 import ru.tchallenge.pilot.service.context.ManagedComponent;
 import ru.tchallenge.pilot.service.domain.account.Account;
 import ru.tchallenge.pilot.service.domain.account.AccountPasswordHashEngine;
+import ru.tchallenge.pilot.service.domain.account.AccountProjector;
 import ru.tchallenge.pilot.service.domain.account.AccountRepository;
 import ru.tchallenge.pilot.service.domain.account.AccountSystemManager;
 import ru.tchallenge.pilot.service.security.token.SecurityToken;
@@ -19,27 +23,43 @@ import ru.tchallenge.pilot.service.security.voucher.SecurityVoucherManager;
 @ManagedComponent
 public class AuthenticationManager extends GenericApplicationComponent {
 
+    private static final long TOKEN_CACHE_MAX_SIZE = 10000;
+    private static final long TOKEN_FAILURE_CACHE_MAX_SIZE = 1000;
+    private static final long TOKEN_CACHE_TTL_SECONDS = 60;
+
     private AccountPasswordHashEngine accountPasswordHashEngine;
+    private AccountProjector accountProjector;
     private AccountRepository accountRepository;
     private AccountSystemManager accountSystemManager;
     private Set<String> illegalStatuses;
     private SecurityVoucherManager securityVoucherManager;
     private TokenManager tokenManager;
+    private Cache<String, TokenAuthentication> tokenAuthentications;
+    private Cache<String, TokenAuthentication> tokenFailures;
 
     @Override
     public void init() {
         super.init();
         this.accountPasswordHashEngine = getComponent(AccountPasswordHashEngine.class);
+        this.accountProjector = getComponent(AccountProjector.class);
         this.accountRepository = getComponent(AccountRepository.class);
         this.accountSystemManager = getComponent(AccountSystemManager.class);
         this.securityVoucherManager = getComponent(SecurityVoucherManager.class);
         this.illegalStatuses = Sets.newHashSet("SUSPENDED", "BANNED", "DELETED");
         this.tokenManager = getComponent(TokenManager.class);
+        this.tokenAuthentications = CacheBuilder.newBuilder()
+                .maximumSize(TOKEN_CACHE_MAX_SIZE)
+                .expireAfterWrite(TOKEN_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+                .build();
+        this.tokenFailures = CacheBuilder.newBuilder()
+                .maximumSize(TOKEN_FAILURE_CACHE_MAX_SIZE)
+                .expireAfterWrite(TOKEN_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+                .build();
     }
 
     public Authentication authenticateByPassword(final AuthenticationInvoice invoice) {
         final String email = invoice.getEmail();
-        final Document accountDocument = accountRepository.findByEmail(email);
+        final Document accountDocument = accountRepository.findByEmail(email, AccountRepository.PROJECTION_CREDENTIALS);
         if (accountDocument == null) {
             throw accountIsMissingOrPasswordIsIncorrect();
         }
@@ -47,7 +67,7 @@ public class AuthenticationManager extends GenericApplicationComponent {
         if (!accountPasswordHashEngine.match(password, accountDocument.getString("passwordHash"))) {
             throw accountIsMissingOrPasswordIsIncorrect();
         }
-        final Account account = accountSystemManager.findByEmail(email);
+        final Account account = accountProjector.intoAccountShort(accountDocument);
         if (accountIsIllegalForAuthentication(account)) {
             throw accountHasIllegalStatus();
         }
@@ -58,24 +78,56 @@ public class AuthenticationManager extends GenericApplicationComponent {
                 .build();
     }
 
+    /**
+     * Resolves the authentication of a token. Resolutions are cached for a short time, so the account is not read
+     * on every request. The token itself is still checked and prolonged on each call. Failures are cached apart,
+     * in a smaller cache, so requests with random tokens cannot evict valid authentications.
+     */
     public Authentication authenticateByToken(final String tokenPayload) {
+        final TokenAuthentication failed = tokenFailures.getIfPresent(tokenPayload);
+        if (failed != null) {
+            throw new RuntimeException(failed.failure);
+        }
+        final TokenAuthentication cached = tokenAuthentications.getIfPresent(tokenPayload);
         final SecurityToken token = tokenManager.retrieveByPayload(tokenPayload);
         if (token == null) {
-            throw tokenIsExpiredOrMissing();
+            throw cacheFailure(tokenPayload, null, tokenIsExpiredOrMissing());
+        }
+        if (cached != null) {
+            return cached.authentication;
         }
         final Account account = accountSystemManager.findById(token.getAccountId());
         if (account == null) {
-            throw accountIsMissing();
+            throw cacheFailure(tokenPayload, token.getAccountId(), accountIsMissing());
         }
         if (accountIsIllegalForAuthentication(account)) {
-            throw accountHasIllegalStatus();
+            throw cacheFailure(tokenPayload, token.getAccountId(), accountHasIllegalStatus());
         }
-        return Authentication.builder()
+        final Authentication authentication = Authentication.builder()
                 .accountId(account.getId().toHex())
                 .accountEmail(account.getEmail())
                 .tokenPayload(token.getPayload())
                 .method(AuthenticationMethod.TOKEN)
                 .build();
+        tokenAuthentications.put(tokenPayload, new TokenAuthentication(authentication.getAccountId(), authentication, null));
+        return authentication;
+    }
+
+    /**
+     * Drops cached token authentications of the account, e.g. after its status has changed.
+     *
+     * Only the caches of this node are cleared, other nodes pick the change up once their entries expire,
+     * i.e. within a minute.
+     */
+    public void invalidateAccount(final String accountId) {
+        tokenAuthentications
+                .asMap()
+                .values()
+                .removeIf(a -> accountId.equals(a.accountId));
+        tokenFailures
+                .asMap()
+                .values()
+                .removeIf(a -> accountId.equals(a.accountId));
     }
 
     public Authentication authenticateByVoucher(final AuthenticationInvoice invoice) {
@@ -102,6 +154,11 @@ public class AuthenticationManager extends GenericApplicationComponent {
                 .build();
     }
 
+    private RuntimeException cacheFailure(final String tokenPayload, final String accountId, final RuntimeException failure) {
+        tokenFailures.put(tokenPayload, new TokenAuthentication(accountId, null, failure.getMessage()));
+        return failure;
+    }
+
     private boolean accountIsIllegalForAuthentication(final Account account) {
         return illegalStatuses.contains(account.getStatus());
     }
@@ -125,4 +182,17 @@ public class AuthenticationManager extends GenericApplicationComponent {
     private RuntimeException voucherIsExpiredOrMissing() {
         return new RuntimeException("Security voucher is expired or does not exist");
     }
+
+    private static final class TokenAuthentication {
+
+        private final String accountId;
+        private final Authentication authentication;
+        private final String failure;
+
+        private TokenAuthentication(final String accountId, final Authentication authentication, final String failure) {
+            this.accountId = accountId;
+            this.authentication = authentication;
+            this.failure = failure;
+        }
+    }
 }
@@ -25,7 +25,7 @@ public class SecurityRegistrationRouter extends GenericApplicationComponent impl
             post("/", (request, response) -> {
                 final SecurityRegistrationInvoice invoice = Json.body(SecurityRegistrationInvoice.class, request);
                 final SecurityRegistration registration = securityRegistrationFacade.createAndSendVoucher(request, invoice);
-                return Json.json(registration.getId(), response);
+                return Json.json(registration.getId(), request, response);
             });
         });
     }
@@ -0,0 +1,124 @@
+package ru.tchallenge.pilot.service.security.token;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.cache.TimingWheel;
+
+/**
+ * Tokens kept in memory of a single node. Expired tokens are evicted by a timing wheel sweeper, a token prolongated
+ * since it was scheduled is rescheduled at its new expiration once its old one is due, so reads never touch the wheel.
+ */
+@Slf4j
+@ManagedComponent
+public class MemoryTokenStore extends GenericApplicationComponent implements TokenStore {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SLOTS = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final int TICKS_PER_MINUTE = 60;
+
+    private final ConcurrentMap<String, SecurityToken> tokens = new ConcurrentHashMap<>();
+    private final TimingWheel<String> expirations = new TimingWheel<>(TICK_MILLIS, WHEEL_SLOTS, WHEEL_LEVELS);
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private long evictedAtMinuteStart;
+    private long ticksInMinute;
+    private volatile long evictedLastMinute;
+    private ScheduledExecutorService sweeper;
+
+    @Override
+    public void init() {
+        super.init();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("token-sweeper-%d")
+                .setDaemon(true)
+                .build());
+        this.sweeper.scheduleAtFixedRate(this::sweepSafely, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(final SecurityToken token) {
+        tokens.put(token.getPayload(), token);
+        expirations.schedule(token.getPayload(), token.getValidUntil().toEpochMilli());
+        created.increment();
+    }
+
+    @Override
+    public SecurityToken findByPayload(final String payload) {
+        final SecurityToken token = tokens.get(payload);
+        if (token == null) {
+            return null;
+        }
+        if (token.isExpired()) {
+            evict(payload, token);
+            return null;
+        }
+        return token;
+    }
+
+    @Override
+    public void prolongate(final SecurityToken token, final Duration period) {
+        token.prolongate(period);
+    }
+
+    @Override
+    public void deleteByPayload(final String payload) {
+        tokens.remove(payload);
+    }
+
+    @Override
+    public TokenStatistics getStatistics() {
+        return TokenStatistics.builder()
+                .live(tokens.size())
+                .created(created.sum())
+                .evicted(evicted.sum())
+                .evictedLastMinute(evictedLastMinute)
+                .build();
+    }
+
+    private void sweep() {
+        expirations.advance(System.currentTimeMillis(), payload -> {
+            final SecurityToken token = tokens.get(payload);
+            if (token == null) {
+                return;
+            }
+            if (token.isExpired()) {
+                evict(payload, token);
+            } else {
+                expirations.schedule(payload, token.getValidUntil().toEpochMilli());
+            }
+        });
+        if (++ticksInMinute == TICKS_PER_MINUTE) {
+            final long total = evicted.sum();
+            evictedLastMinute = total - evictedAtMinuteStart;
+            evictedAtMinuteStart = total;
+            ticksInMinute = 0;
+        }
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (Exception exception) {
+            log.error("Token sweep has failed", exception);
+        }
+    }
+
+    private void evict(final String payload, final SecurityToken token) {
+        if (tokens.remove(payload, token)) {
+            evicted.increment();
+        }
+    }
+}
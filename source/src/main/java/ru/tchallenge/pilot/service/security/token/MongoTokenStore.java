@@ -0,0 +1,138 @@
+package ru.tchallenge.pilot.service.security.token;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+
+/**
+ * Tokens shared by all nodes through a collection with a TTL index. Reads are served from a small near-cache,
+ * prolongation is kept local and written only once it is a step ahead of the stored expiration, so a token
+ * may expire up to a step earlier than it would in memory.
+ *
+ * A token deleted on another node stays valid here until its near-cache entry expires.
+ */
+@ManagedComponent
+public class MongoTokenStore extends GenericApplicationComponent implements TokenStore {
+
+    private static final long DEFAULT_NEAR_CACHE_SECONDS = 30;
+    private static final long DEFAULT_PROLONGATION_STEP_MINUTES = 5;
+    private static final long NEAR_CACHE_MAX_SIZE = 10000;
+    private static final long LIVE_COUNT_TTL_SECONDS = 60;
+
+    private static long environmentVariableAsLong(final String name, final long defaultValue) {
+        final String value = System.getenv(name);
+        return value != null && !value.isEmpty() ? Long.parseLong(value) : defaultValue;
+    }
+
+    private TokenRepository tokenRepository;
+    private Cache<String, CachedToken> nearCache;
+    private Duration prolongationStep;
+    private Supplier<Long> liveCount;
+    private final LongAdder created = new LongAdder();
+
+    @Override
+    public void init() {
+        super.init();
+        this.tokenRepository = getComponent(TokenRepository.class);
+        this.nearCache = CacheBuilder.newBuilder()
+                .maximumSize(NEAR_CACHE_MAX_SIZE)
+                .expireAfterWrite(environmentVariableAsLong("TCHALLENGE_SECURITY_TOKEN_NEAR_CACHE_SECONDS", DEFAULT_NEAR_CACHE_SECONDS), TimeUnit.SECONDS)
+                .build();
+        this.liveCount = Suppliers.memoizeWithExpiration(tokenRepository::countLive, LIVE_COUNT_TTL_SECONDS, TimeUnit.SECONDS);
+        this.prolongationStep = Duration.ofMinutes(environmentVariableAsLong("TCHALLENGE_SECURITY_TOKEN_PROLONGATION_STEP_MINUTES", DEFAULT_PROLONGATION_STEP_MINUTES));
+    }
+
+    @Override
+    public void save(final SecurityToken token) {
+        final TokenDocument document = new TokenDocument()
+                .tokenId(token.getId())
+                .accountId(token.getAccountId())
+                .payload(token.getPayload())
+                .validUntil(token.getValidUntil());
+        tokenRepository.insert(document);
+        nearCache.put(token.getPayload(), new CachedToken(token, token.getValidUntil()));
+        created.increment();
+    }
+
+    @Override
+    public SecurityToken findByPayload(final String payload) {
+        CachedToken cached = nearCache.getIfPresent(payload);
+        if (cached == null) {
+            final TokenDocument document = tokenRepository.findByPayload(payload);
+            if (document == null) {
+                return null;
+            }
+            cached = new CachedToken(token(document), document.getValidUntil());
+            nearCache.put(payload, cached);
+        }
+        if (cached.token.isExpired()) {
+            nearCache.invalidate(payload);
+            return null;
+        }
+        return cached.token;
+    }
+
+    @Override
+    public void prolongate(final SecurityToken token, final Duration period) {
+        token.prolongate(period);
+        final CachedToken cached = nearCache.getIfPresent(token.getPayload());
+        if (cached == null || cached.token != token) {
+            return;
+        }
+        final Instant validUntil = token.getValidUntil();
+        if (validUntil.isBefore(cached.storedValidUntil.plus(prolongationStep))) {
+            return;
+        }
+        if (nearCache.asMap().replace(token.getPayload(), cached, new CachedToken(token, validUntil))) {
+            tokenRepository.prolongate(token.getPayload(), validUntil);
+        }
+    }
+
+    @Override
+    public void deleteByPayload(final String payload) {
+        tokenRepository.deleteByPayload(payload);
+        nearCache.invalidate(payload);
+    }
+
+    /**
+     * Live tokens are counted across all nodes at most once a minute, the other counters are local. Expired
+     * tokens are evicted by the database, so no evictions are reported.
+     */
+    @Override
+    public TokenStatistics getStatistics() {
+        return TokenStatistics.builder()
+                .live(liveCount.get())
+                .created(created.sum())
+                .build();
+    }
+
+    private SecurityToken token(final TokenDocument document) {
+        return SecurityToken.builder()
+                .id(document.getTokenId())
+                .payload(document.getPayload())
+                .accountId(document.getAccountId())
+                .createdAt(document.getCreatedAt())
+                .validUntil(document.getValidUntil())
+                .build();
+    }
+
+    private static final class CachedToken {
+
+        private final SecurityToken token;
+        private final Instant storedValidUntil;
+
+        private CachedToken(final SecurityToken token, final Instant storedValidUntil) {
+            this.token = token;
+            this.storedValidUntil = storedValidUntil;
+        }
+    }
+}
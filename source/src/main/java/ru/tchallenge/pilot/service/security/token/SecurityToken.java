@@ -2,25 +2,39 @@ package ru.tchallenge.pilot.service.security.token;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 
-@Data
+@Getter
 @Builder
 public final class SecurityToken {
 
+    private static final AtomicReferenceFieldUpdater<SecurityToken, Instant> VALID_UNTIL =
+            AtomicReferenceFieldUpdater.newUpdater(SecurityToken.class, Instant.class, "validUntil");
+
     private final String id;
     private final String accountId;
     private final String payload;
     private final Instant createdAt;
-    private Instant validUntil;
+    private volatile Instant validUntil;
 
     public boolean isExpired() {
         return validUntil.isBefore(Instant.now());
     }
 
+    /**
+     * Slides the expiration to the given period from now, never moving it backwards under concurrent prolongation.
+     */
     public void prolongate(final Duration duration) {
-        validUntil = validUntil.plus(duration);
+        final Instant desired = Instant.now().plus(duration);
+        Instant current;
+        do {
+            current = validUntil;
+            if (!desired.isAfter(current)) {
+                return;
+            }
+        } while (!VALID_UNTIL.compareAndSet(this, current, desired));
     }
 }
@@ -23,16 +23,16 @@ public class SecurityTokenRouter extends GenericApplicationComponent implements
         path("/tokens", () -> {
             post("/", (request, response) -> {
                 final SecurityToken token = tokenFacade.createForCurrentAccount(request);
-                return Json.json(token, response);
+                return Json.json(token, request, response);
             });
             path("/current", () -> {
                 get("", (request, response) -> {
                     final SecurityToken token = tokenFacade.retrieveCurrent(request);
-                    return Json.json(token, response);
+                    return Json.json(token, request, response);
                 });
                 put("/delete", (request, response) -> {
                     tokenFacade.deleteCurrent(request);
-                    return Json.json(response);
+                    return Json.json(request, response);
                 });
             });
         });
@@ -0,0 +1,60 @@
+package ru.tchallenge.pilot.service.security.token;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.bson.Document;
+
+import ru.tchallenge.pilot.service.utility.data.DocumentWrapper;
+
+public final class TokenDocument extends DocumentWrapper {
+
+    static final String ATTRIBUTE_ACCOUNT_ID = "accountId";
+    static final String ATTRIBUTE_PAYLOAD = "payload";
+    static final String ATTRIBUTE_TOKEN_ID = "tokenId";
+    static final String ATTRIBUTE_VALID_UNTIL = "validUntil";
+
+    public TokenDocument() {
+
+    }
+
+    public TokenDocument(final Document document) {
+        super(document);
+    }
+
+    public String getAccountId() {
+        return retrieveString(ATTRIBUTE_ACCOUNT_ID);
+    }
+
+    public TokenDocument accountId(final String accountId) {
+        store(ATTRIBUTE_ACCOUNT_ID, accountId);
+        return this;
+    }
+
+    public String getPayload() {
+        return retrieveString(ATTRIBUTE_PAYLOAD);
+    }
+
+    public TokenDocument payload(final String payload) {
+        store(ATTRIBUTE_PAYLOAD, payload);
+        return this;
+    }
+
+    public String getTokenId() {
+        return retrieveString(ATTRIBUTE_TOKEN_ID);
+    }
+
+    public TokenDocument tokenId(final String tokenId) {
+        store(ATTRIBUTE_TOKEN_ID, tokenId);
+        return this;
+    }
+
+    public Instant getValidUntil() {
+        return retrieveInstant(ATTRIBUTE_VALID_UNTIL);
+    }
+
+    public TokenDocument validUntil(final Instant validUntil) {
+        store(ATTRIBUTE_VALID_UNTIL, Date.from(validUntil));
+        return this;
+    }
+}
@@ -2,8 +2,6 @@ package ru.tchallenge.pilot.service.security.token;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
@@ -15,43 +13,59 @@ import ru.tchallenge.pilot.service.domain.account.AccountSystemManager;
 public class TokenManager extends GenericApplicationComponent {
 
     private AccountSystemManager accountSystemManager;
-    private Map<String, SecurityToken> tokens;
+    private TokenStore tokenStore;
     private Duration tokenExpirationPeriod;
 
     @Override
     public void init() {
         super.init();
         this.accountSystemManager = getComponent(AccountSystemManager.class);
-        this.tokens = new HashMap<>();
+        this.tokenStore = tokenStore(System.getenv("TCHALLENGE_SECURITY_TOKEN_STORE"));
         this.tokenExpirationPeriod = Duration.ofHours(1);
     }
 
     public SecurityToken create(final String accountId) {
         final SecurityToken token = createNewToken(accountId);
-        tokens.put(token.getPayload(), token);
+        tokenStore.save(token);
         return token;
     }
 
     public SecurityToken retrieveByPayload(final String payload) {
         String predefinedTokenEnabled = System.getenv("TCHALLENGE_SECURITY_TOKEN_PREDEFINED_ENABLED");
-        if (predefinedTokenEnabled.equalsIgnoreCase("true") && payload.equals("PREDEFINED")) {
+        if ("true".equalsIgnoreCase(predefinedTokenEnabled) && payload.equals("PREDEFINED")) {
             final Account account = accountSystemManager.findByEmail("test.user1@example.com");
             if (account == null) {
                 throw new UnsupportedOperationException("No predefined account");
             }
             return createNewToken(account.getId().toHex());
         }
-        final SecurityToken token = tokens.get(payload);
-        if (token == null || token.isExpired()) {
-            tokens.remove(payload);
+        final SecurityToken token = tokenStore.findByPayload(payload);
+        if (token == null) {
             return null;
         }
-        token.prolongate(tokenExpirationPeriod);
+        tokenStore.prolongate(token, tokenExpirationPeriod);
         return token;
     }
 
     public void deleteByPayload(final String payload) {
-        tokens.remove(payload);
+        tokenStore.deleteByPayload(payload);
+    }
+
+    public TokenStatistics getStatistics() {
+        return tokenStore.getStatistics();
+    }
+
+    /**
+     * Storage backend of tokens: "memory" (default) for a single node or "mongo" to share tokens across nodes.
+     */
+    private TokenStore tokenStore(final String name) {
+        if (name == null || name.isEmpty() || name.equalsIgnoreCase("memory")) {
+            return getComponent(MemoryTokenStore.class);
+        }
+        if (name.equalsIgnoreCase("mongo")) {
+            return getComponent(MongoTokenStore.class);
+        }
+        throw new RuntimeException("Token store is not supported: " + name);
     }
 
     private SecurityToken createNewToken(final String accountId) {
@@ -0,0 +1,72 @@
+package ru.tchallenge.pilot.service.security.token;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+import ru.tchallenge.pilot.service.utility.data.GenericRepository;
+
+@ManagedComponent
+public class TokenRepository extends GenericRepository {
+
+    /**
+     * Finds the token unless it has expired. Expired documents are removed by the TTL monitor, which runs
+     * about once a minute, so they are filtered out explicitly.
+     */
+    public TokenDocument findByPayload(final String payload) {
+        final Document document = documents()
+                .find()
+                .filter(Filters.and(filterByPayload(payload), Filters.gt(TokenDocument.ATTRIBUTE_VALID_UNTIL, new Date())))
+                .first();
+        return document != null ? new TokenDocument(document) : null;
+    }
+
+    /**
+     * Moves the expiration of the token forward, never backwards if nodes prolongate it concurrently.
+     */
+    public void prolongate(final String payload, final Instant validUntil) {
+        documents().updateOne(filterByPayload(payload), Updates.max(TokenDocument.ATTRIBUTE_VALID_UNTIL, Date.from(validUntil)));
+    }
+
+    public void deleteByPayload(final String payload) {
+        documents().deleteOne(filterByPayload(payload));
+    }
+
+    public long countLive() {
+        return documents().count(Filters.gt(TokenDocument.ATTRIBUTE_VALID_UNTIL, new Date()));
+    }
+
+    private static Bson filterByPayload(final String payload) {
+        return Filters.eq(TokenDocument.ATTRIBUTE_PAYLOAD, payload);
+    }
+
+    @Override
+    protected String getCollectionName() {
+        return "tokens";
+    }
+
+    @Override
+    protected WriteConcern getWriteConcern() {
+        return WriteConcern.MAJORITY;
+    }
+
+    @Override
+    protected Collection<IndexModel> getIndexes() {
+        return ImmutableList.of(
+                new IndexModel(Indexes.ascending(TokenDocument.ATTRIBUTE_PAYLOAD), new IndexOptions().unique(true)),
+                new IndexModel(Indexes.ascending(TokenDocument.ATTRIBUTE_VALID_UNTIL), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS))
+        );
+    }
+}
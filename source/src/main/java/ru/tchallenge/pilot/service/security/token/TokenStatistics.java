@@ -0,0 +1,14 @@
+package ru.tchallenge.pilot.service.security.token;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class TokenStatistics {
+
+    private final long live;
+    private final long created;
+    private final long evicted;
+    private final long evictedLastMinute;
+}
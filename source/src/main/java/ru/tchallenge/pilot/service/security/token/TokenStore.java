@@ -0,0 +1,25 @@
+package ru.tchallenge.pilot.service.security.token;
+
+import java.time.Duration;
+
+/**
+ * Storage of issued security tokens.
+ */
+public interface TokenStore {
+
+    void save(SecurityToken token);
+
+    /**
+     * @return token with the payload, null if there is none or it has expired
+     */
+    SecurityToken findByPayload(String payload);
+
+    /**
+     * Extends the validity of the token to the given period from now.
+     */
+    void prolongate(SecurityToken token, Duration period);
+
+    void deleteByPayload(String payload);
+
+    TokenStatistics getStatistics();
+}
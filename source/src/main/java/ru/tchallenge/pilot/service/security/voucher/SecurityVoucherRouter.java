@@ -19,7 +19,7 @@ public class SecurityVoucherRouter extends GenericApplicationComponent implement
             post("/", (request, response) -> {
                 final SecurityVoucherInvoice invoice = Json.body(SecurityVoucherInvoice.class, request);
                 final SecurityVoucher voucher = securityVoucherFacade.createAndSend(request, invoice);
-                return Json.json(voucher.getId(), response);
+                return Json.json(voucher.getId(), request, response);
             });
         });
     }
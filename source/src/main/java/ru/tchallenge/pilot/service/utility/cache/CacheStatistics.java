@@ -0,0 +1,19 @@
+package ru.tchallenge.pilot.service.utility.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class CacheStatistics {
+
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public double getHitRatio() {
+        final long requests = hits + misses;
+        return requests > 0 ? (double) hits / requests : 0;
+    }
+}
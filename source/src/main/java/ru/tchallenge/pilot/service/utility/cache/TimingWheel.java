@@ -0,0 +1,101 @@
+package ru.tchallenge.pilot.service.utility.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel scheduling values by deadline. Scheduling is O(1) and lock-free, each tick costs O(1)
+ * besides the values due and the occasional cascade of a higher level bucket into the lower ones.
+ *
+ * A value may be delivered late, by up to a tick or, if scheduled while its bucket is being consumed, by a whole
+ * rotation, but never early. Deadlines beyond the span of the wheel are parked in its last bucket until they come
+ * within reach.
+ *
+ * @param <T> scheduled value type
+ */
+public final class TimingWheel<T> {
+
+    private final long origin;
+    private final long tickMillis;
+    private final int slots;
+    private final Queue<Entry<T>>[][] buckets;
+    private volatile long currentTick;
+
+    public TimingWheel(final long tickMillis, final int slots, final int levels) {
+        this(tickMillis, slots, levels, System.currentTimeMillis());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(final long tickMillis, final int slots, final int levels, final long origin) {
+        this.origin = origin;
+        this.tickMillis = tickMillis;
+        this.slots = slots;
+        this.buckets = new Queue[levels][slots];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < slots; slot++) {
+                buckets[level][slot] = new ConcurrentLinkedQueue<>();
+            }
+        }
+    }
+
+    public void schedule(final T value, final long deadlineMillis) {
+        final long tick = currentTick;
+        final long deadlineTick = Math.max(tick + 1, (deadlineMillis - origin + tickMillis - 1) / tickMillis);
+        place(new Entry<>(value, deadlineTick), tick);
+    }
+
+    /**
+     * Advances the wheel up to the given time, passing the values due to the consumer. Must not be called concurrently.
+     */
+    public void advance(final long nowMillis, final Consumer<T> consumer) {
+        final long target = (nowMillis - origin) / tickMillis;
+        while (currentTick < target) {
+            final long tick = currentTick + 1;
+            currentTick = tick;
+            long span = slots;
+            for (int level = 1; level < buckets.length && tick % span == 0; level++) {
+                final Queue<Entry<T>> bucket = buckets[level][(int) ((tick / span) % slots)];
+                Entry<T> entry;
+                while ((entry = bucket.poll()) != null) {
+                    place(entry, tick);
+                }
+                span *= slots;
+            }
+            final Queue<Entry<T>> bucket = buckets[0][(int) (tick % slots)];
+            Entry<T> entry;
+            while ((entry = bucket.poll()) != null) {
+                if (entry.deadlineTick > tick) {
+                    place(entry, tick);
+                } else {
+                    consumer.accept(entry.value);
+                }
+            }
+        }
+    }
+
+    private void place(final Entry<T> entry, final long tick) {
+        final long delta = entry.deadlineTick - tick;
+        long span = 1;
+        for (int level = 0; level < buckets.length; level++) {
+            final boolean top = level == buckets.length - 1;
+            if (delta < span * slots || top) {
+                final long deadlineTick = top ? Math.min(entry.deadlineTick, tick + span * (slots - 1)) : entry.deadlineTick;
+                buckets[level][(int) ((deadlineTick / span) % slots)].add(entry);
+                return;
+            }
+            span *= slots;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long deadlineTick;
+
+        private Entry(final T value, final long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
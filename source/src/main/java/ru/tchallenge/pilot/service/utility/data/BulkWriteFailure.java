@@ -0,0 +1,13 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class BulkWriteFailure {
+
+    private final DocumentWrapper documentWrapper;
+    private final int code;
+    private final String message;
+}
@@ -0,0 +1,21 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class BulkWriteReport {
+
+    private final int batches;
+    private final int inserted;
+    private final int matched;
+    private final int modified;
+    private final List<BulkWriteFailure> failures;
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.collect.ImmutableList;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+
+/**
+ * Client-side batching writer issuing unordered bulk writes.
+ *
+ * Documents are stamped exactly as by the single-document writes of {@link DocumentWrapper}, buffered and sent
+ * once the batch is full or on {@link #flush()}. A failing document does not stop the rest of its batch;
+ * it is reported as a {@link BulkWriteFailure}. Instances are not thread-safe.
+ */
+@Slf4j
+public final class BulkWriter implements AutoCloseable {
+
+    private static final BulkWriteOptions OPTIONS = new BulkWriteOptions().ordered(false);
+
+    private final MongoCollection<Document> collection;
+    private final int batchSize;
+    private final List<WriteModel<Document>> models;
+    private final List<DocumentWrapper> wrappers;
+    private final List<BulkWriteFailure> failures;
+    private int batches;
+    private int inserted;
+    private int matched;
+    private int modified;
+
+    BulkWriter(final MongoCollection<Document> collection, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.collection = collection;
+        this.batchSize = batchSize;
+        this.models = new ArrayList<>(batchSize);
+        this.wrappers = new ArrayList<>(batchSize);
+        this.failures = new ArrayList<>();
+    }
+
+    public BulkWriter insert(final DocumentWrapper documentWrapper) {
+        return append(documentWrapper, documentWrapper.toInsertModel());
+    }
+
+    public BulkWriter replace(final DocumentWrapper documentWrapper) {
+        return append(documentWrapper, documentWrapper.toReplaceModel());
+    }
+
+    public BulkWriter update(final DocumentWrapper documentWrapper) {
+        return append(documentWrapper, documentWrapper.toUpdateModel(null));
+    }
+
+    public BulkWriter flush() {
+        if (models.isEmpty()) {
+            return this;
+        }
+        try {
+            collect(collection.bulkWrite(models, OPTIONS));
+        } catch (final MongoBulkWriteException exception) {
+            collect(exception.getWriteResult());
+            for (final BulkWriteError error : exception.getWriteErrors()) {
+                failures.add(BulkWriteFailure.builder()
+                        .documentWrapper(wrappers.get(error.getIndex()))
+                        .code(error.getCode())
+                        .message(error.getMessage())
+                        .build());
+            }
+            log.warn("Bulk write into {} completed with {} failures", collection.getNamespace(), exception.getWriteErrors().size());
+        } finally {
+            batches++;
+            models.clear();
+            wrappers.clear();
+        }
+        return this;
+    }
+
+    public BulkWriteReport getReport() {
+        return BulkWriteReport.builder()
+                .batches(batches)
+                .inserted(inserted)
+                .matched(matched)
+                .modified(modified)
+                .failures(ImmutableList.copyOf(failures))
+                .build();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private BulkWriter append(final DocumentWrapper documentWrapper, final WriteModel<Document> model) {
+        wrappers.add(documentWrapper);
+        models.add(model);
+        if (models.size() >= batchSize) {
+            flush();
+        }
+        return this;
+    }
+
+    private void collect(final BulkWriteResult result) {
+        if (result.wasAcknowledged()) {
+            inserted += result.getInsertedCount();
+            matched += result.getMatchedCount();
+            modified += result.getModifiedCount();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Data;
+
+import ru.tchallenge.pilot.service.utility.http.ConditionalRequests;
+
+/**
+ * Number of documents of a collection and the latest modification time among them, changing whenever
+ * a document is inserted, deleted or written through {@link DocumentWrapper}.
+ */
+@Data
+@Builder
+public final class CollectionState {
+
+    private final long count;
+    private final Instant lastModifiedAt;
+
+    public String getEntityTag() {
+        return ConditionalRequests.weak(count + "-" + (lastModifiedAt != null ? lastModifiedAt.toEpochMilli() : 0));
+    }
+}
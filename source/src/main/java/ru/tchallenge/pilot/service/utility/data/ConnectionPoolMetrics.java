@@ -0,0 +1,82 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+
+/**
+ * Connection pool listener measuring how long threads wait to check out a connection.
+ *
+ * The driver enters and exits the wait queue on the requesting thread, so the wait start is kept in a thread local.
+ */
+public final class ConnectionPoolMetrics extends ConnectionPoolListenerAdapter {
+
+    private final ThreadLocal<Long> waitStartedAt = new ThreadLocal<>();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong waiting = new AtomicLong();
+    private final AtomicLong checkedOut = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    @Override
+    public void waitQueueEntered(final ConnectionPoolWaitQueueEnteredEvent event) {
+        waiting.incrementAndGet();
+        waitStartedAt.set(System.nanoTime());
+    }
+
+    @Override
+    public void waitQueueExited(final ConnectionPoolWaitQueueExitedEvent event) {
+        waiting.decrementAndGet();
+        final Long startedAt = waitStartedAt.get();
+        if (startedAt == null) {
+            return;
+        }
+        waitStartedAt.remove();
+        final long nanos = System.nanoTime() - startedAt;
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public void connectionCheckedOut(final ConnectionCheckedOutEvent event) {
+        checkouts.increment();
+        checkedOut.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(final ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void connectionAdded(final ConnectionAddedEvent event) {
+        connections.incrementAndGet();
+    }
+
+    @Override
+    public void connectionRemoved(final ConnectionRemovedEvent event) {
+        connections.decrementAndGet();
+    }
+
+    public ConnectionPoolStatistics getStatistics() {
+        final long checkoutCount = checkouts.sum();
+        final long totalWaitNanos = waitNanos.sum();
+        return ConnectionPoolStatistics.builder()
+                .connections(connections.get())
+                .checkedOut(checkedOut.get())
+                .waiting(waiting.get())
+                .checkouts(checkoutCount)
+                .averageWaitMicros(checkoutCount > 0 ? TimeUnit.NANOSECONDS.toMicros(totalWaitNanos / checkoutCount) : 0)
+                .maxWaitMicros(TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()))
+                .build();
+    }
+}
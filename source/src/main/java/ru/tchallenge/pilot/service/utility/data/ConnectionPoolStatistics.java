@@ -0,0 +1,16 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public final class ConnectionPoolStatistics {
+
+    private final long connections;
+    private final long checkedOut;
+    private final long waiting;
+    private final long checkouts;
+    private final long averageWaitMicros;
+    private final long maxWaitMicros;
+}
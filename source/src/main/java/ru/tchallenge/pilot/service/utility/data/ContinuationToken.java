@@ -0,0 +1,27 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.Base64;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Opaque keyset pagination token carrying the id of the last document of a page.
+ */
+public final class ContinuationToken {
+
+    public static String encode(final Id lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toObjectId().toByteArray());
+    }
+
+    public static Id decode(final String token) {
+        try {
+            return new Id(new ObjectId(Base64.getUrlDecoder().decode(token)));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Continuation token is invalid");
+        }
+    }
+
+    private ContinuationToken() {
+
+    }
+}
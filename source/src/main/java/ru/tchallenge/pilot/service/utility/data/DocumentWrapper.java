@@ -2,24 +2,71 @@ package ru.tchallenge.pilot.service.utility.data;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 public class DocumentWrapper implements IdAware {
 
     protected static final String ATTRIBUTE_ID = "_id";
-    private static final String ATTRIBUTE_CREATED_AT = "createdAt";
-    private static final String ATTRIBUTE_LAST_MODIFIED_AT = "lastModifiedAt";
+    protected static final String ATTRIBUTE_CREATED_AT = "createdAt";
+    protected static final String ATTRIBUTE_LAST_MODIFIED_AT = "lastModifiedAt";
+    protected static final String ATTRIBUTE_VERSION = "version";
+
+    /**
+     * Keyset pagination filter matching documents after the given id in id order.
+     */
+    public static Bson filterAfterId(final Id id) {
+        return Filters.gt(ATTRIBUTE_ID, id.toObjectId());
+    }
+
+    public static Bson sortById() {
+        return Sorts.ascending(ATTRIBUTE_ID);
+    }
+
+    /**
+     * Filter matching the given version. Documents written before versioning was introduced have version 0.
+     */
+    public static Bson filterByVersion(final long version) {
+        return version == 0 ? Filters.in(ATTRIBUTE_VERSION, 0L, null) : Filters.eq(ATTRIBUTE_VERSION, version);
+    }
 
     protected final Document document;
 
+    /**
+     * Decoded attribute values (ids and lists) cached per wrapper instance, invalidated on store.
+     */
+    private Map<String, Object> memo;
+
+    /**
+     * Values changed since the document was read or written, keyed by dotted path (e.g. "assignments.3.solution").
+     * Nested wrappers report their changes to the root wrapper under their own path prefix.
+     */
+    private Map<String, Object> changes;
+    private DocumentWrapper parent;
+    private String path;
+
     public DocumentWrapper() {
         this.document = new Document();
     }
@@ -55,35 +102,107 @@ public class DocumentWrapper implements IdAware {
         return retrieveInstant(ATTRIBUTE_LAST_MODIFIED_AT);
     }
 
+    /**
+     * Version of the document as it was read, incremented by every write.
+     */
+    public long getVersion() {
+        final Number version = (Number) document.get(ATTRIBUTE_VERSION);
+        return version != null ? version.longValue() : 0L;
+    }
+
+    /**
+     * Records a change of the attribute at the given dotted path without touching the wrapped document.
+     * Allows partial updates of documents which have not been read.
+     */
+    public DocumentWrapper stage(final String path, final Object value) {
+        record(path, value);
+        return this;
+    }
+
     public DocumentWrapper deleteFrom(final MongoCollection<Document> collection) {
         collection.deleteOne(getId().toFilter());
         return this;
     }
 
     public DocumentWrapper insertInto(final MongoCollection<Document> collection) {
-        final Date now = Date.from(Instant.now());
-        document.put(ATTRIBUTE_CREATED_AT, now);
-        document.put(ATTRIBUTE_LAST_MODIFIED_AT, now);
-        if (retrieveId(document) == null) {
-            attachId(document, new Id());
-        }
-        collection.insertOne(document);
+        collection.insertOne(toInsertModel().getDocument());
         return this;
     }
 
     public DocumentWrapper replaceWithin(final MongoCollection<Document> collection) {
-        final Date now = Date.from(Instant.now());
-        document.put(ATTRIBUTE_LAST_MODIFIED_AT, now);
-        collection.replaceOne(getId().toFilter(), document);
+        final ReplaceOneModel<Document> model = toReplaceModel();
+        collection.replaceOne(model.getFilter(), model.getReplacement());
         return this;
     }
 
+    public boolean updateWithin(final MongoCollection<Document> collection) {
+        return updateWithin(collection, null);
+    }
+
+    public boolean updateWithin(final MongoCollection<Document> collection, final Bson condition) {
+        final UpdateOneModel<Document> model = toUpdateModel(condition);
+        final FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .projection(Projections.include(ATTRIBUTE_VERSION))
+                .returnDocument(ReturnDocument.AFTER);
+        final Document updated = collection.findOneAndUpdate(model.getFilter(), model.getUpdate(), options);
+        if (updated == null) {
+            return false;
+        }
+        document.put(ATTRIBUTE_VERSION, updated.get(ATTRIBUTE_VERSION));
+        return true;
+    }
+
+    public InsertOneModel<Document> toInsertModel() {
+        final Date now = Date.from(Instant.now());
+        store(ATTRIBUTE_CREATED_AT, now);
+        store(ATTRIBUTE_LAST_MODIFIED_AT, now);
+        store(ATTRIBUTE_VERSION, 1L);
+        if (retrieveId(document) == null) {
+            store(ATTRIBUTE_ID, new Id().toObjectId());
+        }
+        changes = null;
+        return new InsertOneModel<>(document);
+    }
+
+    public ReplaceOneModel<Document> toReplaceModel() {
+        store(ATTRIBUTE_LAST_MODIFIED_AT, Date.from(Instant.now()));
+        store(ATTRIBUTE_VERSION, getVersion() + 1);
+        changes = null;
+        return new ReplaceOneModel<>(getId().toFilter(), document);
+    }
+
+    /**
+     * Creates a {@code $set} update of the changed paths only. Paths nested under another changed path are
+     * covered by their ancestor and omitted. The version is incremented on the server side. Nested wrappers
+     * are updated through their root wrapper.
+     */
+    public UpdateOneModel<Document> toUpdateModel(final Bson condition) {
+        if (parent != null) {
+            throw new RuntimeException("Nested document is updated through its root document");
+        }
+        store(ATTRIBUTE_LAST_MODIFIED_AT, Date.from(Instant.now()));
+        final List<Bson> updates = changes
+                .keySet()
+                .stream()
+                .filter(this::notCoveredByAncestor)
+                .map(p -> Updates.set(p, changes.get(p)))
+                .collect(Collectors.toList());
+        updates.add(Updates.inc(ATTRIBUTE_VERSION, 1L));
+        final Bson filter = condition != null ? Filters.and(getId().toFilter(), condition) : getId().toFilter();
+        changes = null;
+        return new UpdateOneModel<>(filter, Updates.combine(updates));
+    }
+
+    public Bson toVersionFilter() {
+        return filterByVersion(getVersion());
+    }
+
     protected Boolean retrieveBoolean(final String attribute) {
         return document.getBoolean(attribute);
     }
 
     protected Id retrieveId(final String attribute) {
-        return new Id(document.getObjectId(attribute));
+        return memoized(attribute, () -> new Id(document.getObjectId(attribute)));
     }
 
     protected Instant retrieveInstant(final String attribute) {
@@ -94,26 +213,39 @@ public class DocumentWrapper implements IdAware {
         return document.getInteger(attribute);
     }
 
-    protected <T> List<T> retrieveListOfDocuments(final String attribute, final Function<Document, T> mapper) {
-        final List<Document> list = cast(document.get(attribute));
-        if (list == null) {
-            return new ArrayList<>();
-        }
-        return list
+    protected <T extends DocumentWrapper> List<T> retrieveListOfDocuments(final String attribute,
+                                                                        final Function<Document, T> mapper) {
+        return memoized(attribute, () -> {
+            final List<Document> list = cast(document.get(attribute));
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            final List<T> result = new ArrayList<>(list.size());
+            for (int index = 0; index < list.size(); index++) {
+                result.add(nested(mapper.apply(list.get(index)), attribute, index));
+            }
+            return Collections.unmodifiableList(result);
+        });
+    }
+
+    protected <E extends Enum<E>> List<E> retrieveListOfEnums(final String attribute, final Class<E> type) {
+        return memoized(attribute, () -> Collections.unmodifiableList(retrieveListOfStrings(attribute)
                 .stream()
-                .map(mapper)
-                .collect(Collectors.toList());
+                .map(name -> Enum.valueOf(type, name))
+                .collect(Collectors.toList())));
     }
 
     protected List<Id> retrieveListOfIds(final String attribute) {
-        final List<ObjectId> list = cast(document.get(attribute));
-        if (list == null) {
-            return new ArrayList<>();
-        }
-        return list
-                .stream()
-                .map(Id::new)
-                .collect(Collectors.toList());
+        return memoized(attribute, () -> {
+            final List<ObjectId> list = cast(document.get(attribute));
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(list
+                    .stream()
+                    .map(Id::new)
+                    .collect(Collectors.toList()));
+        });
     }
 
     protected List<String> retrieveListOfStrings(final String attribute) {
@@ -128,6 +260,84 @@ public class DocumentWrapper implements IdAware {
         return document.getString(attribute);
     }
 
+    protected void store(final String attribute, final Object value) {
+        document.put(attribute, value);
+        forget(attribute);
+        record(attribute, value);
+    }
+
+    protected void storeListOfDocuments(final String attribute, final List<? extends DocumentWrapper> wrappers) {
+        final List<Document> list = wrappers
+                .stream()
+                .map(DocumentWrapper::getDocument)
+                .collect(Collectors.toList());
+        store(attribute, list);
+        for (int index = 0; index < wrappers.size(); index++) {
+            nested(wrappers.get(index), attribute, index);
+        }
+        memo().put(attribute, Collections.unmodifiableList(new ArrayList<>(wrappers)));
+    }
+
+    /**
+     * Attaches the wrapper of a list element so that its changes are tracked by this wrapper.
+     */
+    protected <T extends DocumentWrapper> T nested(final T wrapper, final String attribute, final int index) {
+        final DocumentWrapper element = wrapper;
+        element.parent = this;
+        element.path = attribute + "." + index;
+        return wrapper;
+    }
+
+    private void record(final String path, final Object value) {
+        if (parent != null) {
+            parent.record(this.path + "." + path, value);
+            return;
+        }
+        if (changes == null) {
+            changes = new LinkedHashMap<>();
+        }
+        changes.put(path, value);
+    }
+
+    private boolean notCoveredByAncestor(final String path) {
+        return changes
+                .keySet()
+                .stream()
+                .noneMatch(ancestor -> path.startsWith(ancestor + "."));
+    }
+
+    private void forget(final String attribute) {
+        if (memo == null) {
+            return;
+        }
+        final Object value = memo.remove(attribute);
+        if (value instanceof List) {
+            for (final Object element : (List<?>) value) {
+                if (element instanceof DocumentWrapper) {
+                    ((DocumentWrapper) element).parent = null;
+                }
+            }
+        }
+    }
+
+    private <T> T memoized(final String attribute, final Supplier<T> supplier) {
+        final Map<String, Object> memo = memo();
+        final Object value = memo.get(attribute);
+        if (value != null) {
+            return cast(value);
+        }
+        final T result = supplier.get();
+        memo.put(attribute, result);
+        return result;
+    }
+
+    private Map<String, Object> memo() {
+        if (memo == null) {
+            memo = new HashMap<>();
+        }
+        return memo;
+    }
+
     private static Document attachId(final Document document, final Id id) {
         document.put(ATTRIBUTE_ID, id.toObjectId());
         return document;
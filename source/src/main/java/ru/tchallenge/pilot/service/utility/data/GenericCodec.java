@@ -0,0 +1,212 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Base codec mapping BSON straight to and from an immutable record, decoding through its builder.
+ *
+ * Attributes are read in a single pass over the BSON stream, unknown attributes are skipped and
+ * null values leave the corresponding builder property untouched. Null properties are not written.
+ * Application writes still go through {@link DocumentWrapper}.
+ *
+ * @param <T> record type
+ * @param <B> record builder type
+ */
+public abstract class GenericCodec<T, B> implements Codec<T> {
+
+    protected static final String ATTRIBUTE_ID = DocumentWrapper.ATTRIBUTE_ID;
+    protected static final String ATTRIBUTE_CREATED_AT = DocumentWrapper.ATTRIBUTE_CREATED_AT;
+    protected static final String ATTRIBUTE_LAST_MODIFIED_AT = DocumentWrapper.ATTRIBUTE_LAST_MODIFIED_AT;
+    protected static final String ATTRIBUTE_VERSION = DocumentWrapper.ATTRIBUTE_VERSION;
+
+    private final Class<T> type;
+
+    protected GenericCodec(final Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public T decode(final BsonReader reader, final DecoderContext context) {
+        final B builder = builder();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String attribute = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+            } else if (!decodeAttribute(builder, attribute, reader, context)) {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return build(builder);
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final T value, final EncoderContext context) {
+        writer.writeStartDocument();
+        encodeAttributes(writer, value, context);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+
+    protected abstract B builder();
+
+    /**
+     * Decodes the current value into the builder.
+     *
+     * @return false if the attribute is unknown and its value must be skipped
+     */
+    protected abstract boolean decodeAttribute(B builder, String attribute, BsonReader reader, DecoderContext context);
+
+    protected abstract T build(B builder);
+
+    /**
+     * Writes the attributes of the record, the ones {@link #decodeAttribute} reads.
+     */
+    protected abstract void encodeAttributes(BsonWriter writer, T value, EncoderContext context);
+
+    protected static Boolean readBoolean(final BsonReader reader) {
+        return reader.readBoolean();
+    }
+
+    protected static <E extends Enum<E>> E readEnum(final BsonReader reader, final Class<E> type) {
+        return Enum.valueOf(type, reader.readString());
+    }
+
+    protected static Id readId(final BsonReader reader) {
+        return new Id(reader.readObjectId());
+    }
+
+    protected static Instant readInstant(final BsonReader reader) {
+        return Instant.ofEpochMilli(reader.readDateTime());
+    }
+
+    protected static Integer readInteger(final BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT64:
+                return Math.toIntExact(reader.readInt64());
+            case DOUBLE:
+                return (int) reader.readDouble();
+            default:
+                return reader.readInt32();
+        }
+    }
+
+    protected static Long readLong(final BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return (long) reader.readInt32();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            default:
+                return reader.readInt64();
+        }
+    }
+
+    protected static String readString(final BsonReader reader) {
+        return reader.readString();
+    }
+
+    protected static <E> ImmutableList<E> readList(final BsonReader reader, final Function<BsonReader, E> elementReader) {
+        final ImmutableList.Builder<E> result = ImmutableList.builder();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+            } else {
+                result.add(elementReader.apply(reader));
+            }
+        }
+        reader.readEndArray();
+        return result.build();
+    }
+
+    protected static <E> ImmutableList<E> readList(final BsonReader reader,
+                                                   final DecoderContext context,
+                                                   final Codec<E> elementCodec) {
+        return readList(reader, r -> elementCodec.decode(r, context));
+    }
+
+    protected static void writeBoolean(final BsonWriter writer, final String name, final Boolean value) {
+        if (value != null) {
+            writer.writeBoolean(name, value);
+        }
+    }
+
+    protected static void writeEnum(final BsonWriter writer, final String name, final Enum<?> value) {
+        if (value != null) {
+            writer.writeString(name, value.name());
+        }
+    }
+
+    protected static void writeId(final BsonWriter writer, final String name, final Id value) {
+        if (value != null) {
+            writer.writeObjectId(name, value.toObjectId());
+        }
+    }
+
+    protected static void writeInstant(final BsonWriter writer, final String name, final Instant value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toEpochMilli());
+        }
+    }
+
+    protected static void writeInteger(final BsonWriter writer, final String name, final Integer value) {
+        if (value != null) {
+            writer.writeInt32(name, value);
+        }
+    }
+
+    protected static void writeLong(final BsonWriter writer, final String name, final Long value) {
+        if (value != null) {
+            writer.writeInt64(name, value);
+        }
+    }
+
+    protected static void writeString(final BsonWriter writer, final String name, final String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    protected static <E> void writeList(final BsonWriter writer,
+                                        final String name,
+                                        final List<E> values,
+                                        final BiConsumer<BsonWriter, E> elementWriter) {
+        if (values == null) {
+            return;
+        }
+        writer.writeStartArray(name);
+        for (final E value : values) {
+            if (value == null) {
+                writer.writeNull();
+            } else {
+                elementWriter.accept(writer, value);
+            }
+        }
+        writer.writeEndArray();
+    }
+
+    protected static <E> void writeList(final BsonWriter writer,
+                                        final String name,
+                                        final List<E> values,
+                                        final EncoderContext context,
+                                        final Codec<E> elementCodec) {
+        writeList(writer, name, values, (w, value) -> context.encodeWithChildContext(elementCodec, w, value));
+    }
+}
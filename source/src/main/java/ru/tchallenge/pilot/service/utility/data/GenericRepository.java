@@ -1,19 +1,75 @@
 package ru.tchallenge.pilot.service.utility.data;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.BsonDocument;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import ru.tchallenge.pilot.service.configuration.PersistenceConfiguration;
 import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
 
+@Slf4j
 public abstract class GenericRepository extends GenericApplicationComponent {
 
+    private static final int DEFAULT_BULK_BATCH_SIZE = 1000;
+    private static final String PRIMARY_INDEX_NAME = "_id_";
+
     private MongoCollection<Document> documents;
+    private Map<String, Bson> projections;
+
+    public BulkWriter bulkWriter() {
+        return bulkWriter(DEFAULT_BULK_BATCH_SIZE);
+    }
+
+    public BulkWriter bulkWriter(final int batchSize) {
+        return new BulkWriter(documents, batchSize);
+    }
 
     public long count() {
         return this.documents.count();
     }
 
+    public long count(final Bson filter) {
+        return this.documents.count(filter);
+    }
+
+    /**
+     * Current state of the collection, e.g. as a validator of responses listing it. The latest modification
+     * is found through an index on the modification time if the repository declares one.
+     */
+    public CollectionState findState() {
+        final Document latest = documents
+                .find()
+                .projection(Projections.include(DocumentWrapper.ATTRIBUTE_LAST_MODIFIED_AT))
+                .sort(Sorts.descending(DocumentWrapper.ATTRIBUTE_LAST_MODIFIED_AT))
+                .limit(1)
+                .first();
+        final Date lastModifiedAt = latest != null ? latest.getDate(DocumentWrapper.ATTRIBUTE_LAST_MODIFIED_AT) : null;
+        return CollectionState.builder()
+                .count(count())
+                .lastModifiedAt(lastModifiedAt != null ? lastModifiedAt.toInstant() : null)
+                .build();
+    }
+
     public void delete(final DocumentWrapper documentWrapper) {
         documentWrapper.deleteFrom(documents);
     }
@@ -22,6 +78,14 @@ public abstract class GenericRepository extends GenericApplicationComponent {
         documentWrapper.insertInto(documents);
     }
 
+    public BulkWriteReport insertAll(final Collection<? extends DocumentWrapper> documentWrappers) {
+        try (BulkWriter writer = bulkWriter()) {
+            documentWrappers.forEach(writer::insert);
+            writer.flush();
+            return writer.getReport();
+        }
+    }
+
     public DocumentWrapper findById(final Id id) {
         final Document document = documents
                 .find()
@@ -30,20 +94,160 @@ public abstract class GenericRepository extends GenericApplicationComponent {
         return document != null ? new DocumentWrapper(document) : null;
     }
 
+    public DocumentWrapper findById(final Id id, final String projectionName) {
+        final Document document = documents
+                .find()
+                .filter(id.toFilter())
+                .projection(projection(projectionName))
+                .first();
+        return document != null ? new DocumentWrapper(document) : null;
+    }
+
     public void replace(final DocumentWrapper documentWrapper) {
         documentWrapper.replaceWithin(documents);
     }
 
+    /**
+     * Writes only the attributes changed on the wrapper.
+     *
+     * @return false if no document matched
+     */
+    public boolean update(final DocumentWrapper documentWrapper) {
+        return documentWrapper.updateWithin(documents);
+    }
+
+    public boolean update(final DocumentWrapper documentWrapper, final Bson condition) {
+        return documentWrapper.updateWithin(documents, condition);
+    }
+
+    /**
+     * Writes the changed attributes only if the document has not been modified since it was read.
+     *
+     * @return false if the stored version differs from the version of the wrapper
+     */
+    public boolean compareAndUpdate(final DocumentWrapper documentWrapper) {
+        return documentWrapper.updateWithin(documents, documentWrapper.toVersionFilter());
+    }
+
     @Override
     public void init() {
         super.init();
         PersistenceConfiguration persistenceConfiguration = getComponent(PersistenceConfiguration.class);
-        this.documents = persistenceConfiguration.getDocumentCollection(getCollectionName());
+        this.documents = withReadWriteSettings(persistenceConfiguration.getDocumentCollection(getCollectionName()));
+        this.projections = getProjections();
+        ensureIndexes();
+    }
+
+    private MongoCollection<Document> withReadWriteSettings(final MongoCollection<Document> collection) {
+        MongoCollection<Document> result = collection;
+        if (getReadPreference() != null) {
+            result = result.withReadPreference(getReadPreference());
+        }
+        if (getWriteConcern() != null) {
+            result = result.withWriteConcern(getWriteConcern());
+        }
+        return result;
+    }
+
+    /**
+     * Creates declared indexes missing from the collection and reports undeclared ones. Existing indexes
+     * are matched by name and never dropped, a failure to build one index does not prevent the others.
+     */
+    private void ensureIndexes() {
+        final Set<String> existing = new HashSet<>();
+        for (final Document index : documents.listIndexes()) {
+            existing.add(index.getString("name"));
+        }
+        final Set<String> declared = new HashSet<>();
+        final List<String> created = new ArrayList<>();
+        for (final IndexModel index : getIndexes()) {
+            final String name = indexName(index);
+            declared.add(name);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                documents.createIndex(index.getKeys(), index.getOptions().name(name));
+                created.add(name);
+            } catch (MongoException e) {
+                log.error("Index {} of collection {} cannot be created", name, getCollectionName(), e);
+            }
+        }
+        final List<String> extra = existing
+                .stream()
+                .filter(name -> !name.equals(PRIMARY_INDEX_NAME) && !declared.contains(name))
+                .sorted()
+                .collect(Collectors.toList());
+        if (!created.isEmpty()) {
+            log.info("Indexes of collection {} created: {}", getCollectionName(), created);
+        }
+        if (!extra.isEmpty()) {
+            log.warn("Indexes of collection {} are not declared: {}", getCollectionName(), extra);
+        }
+    }
+
+    private static String indexName(final IndexModel index) {
+        if (index.getOptions().getName() != null) {
+            return index.getOptions().getName();
+        }
+        final BsonDocument keys = index.getKeys().toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry());
+        return keys
+                .entrySet()
+                .stream()
+                .map(e -> e.getKey() + "_" + (e.getValue().isNumber() ? e.getValue().asNumber().intValue() : e.getValue().asString().getValue()))
+                .collect(Collectors.joining("_"));
     }
 
     protected MongoCollection<Document> documents() {
         return documents;
     }
 
+    protected Bson projection(final String name) {
+        final Bson projection = projections.get(name);
+        if (projection == null) {
+            throw new IllegalArgumentException("Projection is not registered: " + name);
+        }
+        return projection;
+    }
+
+    protected <T> MongoCollection<T> records(final Class<T> type) {
+        return documents.withDocumentClass(type);
+    }
+
+    protected <T> T findRecordById(final Id id, final Class<T> type) {
+        return records(type)
+                .find()
+                .filter(id.toFilter())
+                .first();
+    }
+
     protected abstract String getCollectionName();
+
+    /**
+     * Read preference of the repository, null to inherit the client default (primary).
+     */
+    protected ReadPreference getReadPreference() {
+        return null;
+    }
+
+    /**
+     * Write concern of the repository, null to inherit the client default (acknowledged).
+     */
+    protected WriteConcern getWriteConcern() {
+        return null;
+    }
+
+    /**
+     * Indexes the repository queries rely on, ensured at startup. Unnamed indexes get the server default name.
+     */
+    protected Collection<IndexModel> getIndexes() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Named projection shapes supported by the repository, each including only the attributes its views render.
+     */
+    protected Map<String, Bson> getProjections() {
+        return Collections.emptyMap();
+    }
 }
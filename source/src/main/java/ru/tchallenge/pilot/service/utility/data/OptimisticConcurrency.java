@@ -0,0 +1,32 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.function.Supplier;
+
+public final class OptimisticConcurrency {
+
+    public static final int DEFAULT_ATTEMPTS = 5;
+
+    /**
+     * Runs a read-modify-write attempt until it succeeds or the attempts are exhausted.
+     *
+     * @param attempt returns the result of a successful compare-and-swap write or null if the document
+     *                has been modified concurrently and the attempt must be repeated with a fresh read
+     */
+    public static <T> T retry(final int attempts, final Supplier<T> attempt) {
+        for (int i = 0; i < attempts; i++) {
+            final T result = attempt.get();
+            if (result != null) {
+                return result;
+            }
+        }
+        throw new VersionConflictException("Document is being modified concurrently, try again later");
+    }
+
+    public static <T> T retry(final Supplier<T> attempt) {
+        return retry(DEFAULT_ATTEMPTS, attempt);
+    }
+
+    private OptimisticConcurrency() {
+
+    }
+}
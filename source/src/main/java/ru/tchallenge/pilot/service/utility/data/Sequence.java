@@ -0,0 +1,66 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Hi/lo sequence handing out values from a block reserved in the counter collection.
+ *
+ * Values are unique across nodes and increasing within a node, values of a block left unused on shutdown are lost.
+ */
+public final class Sequence {
+
+    private final SequenceRepository sequenceRepository;
+    private final String name;
+    private final long blockSize;
+    private final LongSupplier initialValue;
+    private final AtomicReference<Block> block = new AtomicReference<>(new Block(0, -1));
+    private boolean initialized;
+
+    Sequence(final SequenceRepository sequenceRepository,
+             final String name,
+             final long blockSize,
+             final LongSupplier initialValue) {
+        this.sequenceRepository = sequenceRepository;
+        this.name = name;
+        this.blockSize = blockSize;
+        this.initialValue = initialValue;
+    }
+
+    public long next() {
+        while (true) {
+            final Block current = block.get();
+            final long value = current.next.getAndIncrement();
+            if (value <= current.last) {
+                return value;
+            }
+            reserve(current);
+        }
+    }
+
+    private synchronized void reserve(final Block exhausted) {
+        if (block.get() != exhausted) {
+            return;
+        }
+        if (!initialized) {
+            if (initialValue != null) {
+                sequenceRepository.initialize(name, initialValue.getAsLong());
+            }
+            initialized = true;
+        }
+        final long last = sequenceRepository.reserve(name, blockSize);
+        block.set(new Block(last - blockSize + 1, last));
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(final long first, final long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import ru.tchallenge.pilot.service.context.GenericApplicationComponent;
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+
+@ManagedComponent
+public class SequenceManager extends GenericApplicationComponent {
+
+    private static final long DEFAULT_BLOCK_SIZE = 50;
+
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public Sequence sequence(final String name) {
+        return sequence(name, null);
+    }
+
+    /**
+     * Sequences may be obtained from other components' init(), values are only reserved on first use.
+     *
+     * @param initialValue value of a missing counter, evaluated once on the first reservation of the node
+     */
+    public Sequence sequence(final String name, final LongSupplier initialValue) {
+        return sequences.computeIfAbsent(name, n -> new Sequence(getComponent(SequenceRepository.class), n, DEFAULT_BLOCK_SIZE, initialValue));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+
+import ru.tchallenge.pilot.service.context.ManagedComponent;
+
+@ManagedComponent
+public class SequenceRepository extends GenericRepository {
+
+    private static final String ATTRIBUTE_VALUE = "value";
+
+    /**
+     * Creates the counter with the given value unless it already exists.
+     */
+    public void initialize(final String name, final long value) {
+        try {
+            documents().updateOne(
+                    filterByName(name),
+                    Updates.setOnInsert(ATTRIBUTE_VALUE, value),
+                    new UpdateOptions().upsert(true)
+            );
+        } catch (MongoWriteException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Atomically advances the counter by the block size.
+     *
+     * @return the last value of the reserved block
+     */
+    public long reserve(final String name, final long blockSize) {
+        final FindOneAndUpdateOptions options = new FindOneAndUpdateOptions()
+                .upsert(true)
+                .returnDocument(ReturnDocument.AFTER);
+        final Document counter = documents().findOneAndUpdate(filterByName(name), Updates.inc(ATTRIBUTE_VALUE, blockSize), options);
+        return ((Number) counter.get(ATTRIBUTE_VALUE)).longValue();
+    }
+
+    private static Document filterByName(final String name) {
+        return new Document(DocumentWrapper.ATTRIBUTE_ID, name);
+    }
+
+    @Override
+    protected String getCollectionName() {
+        return "sequences";
+    }
+
+    @Override
+    protected WriteConcern getWriteConcern() {
+        return WriteConcern.MAJORITY;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+/**
+ * Thrown when a document has been modified concurrently or does not match the expected version.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(final String message) {
+        super(message);
+    }
+}
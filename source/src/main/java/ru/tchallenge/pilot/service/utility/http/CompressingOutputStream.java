@@ -0,0 +1,72 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Response stream holding the body back until it reaches the threshold. A body which never reaches it is sent
+ * as is, a larger one switches the response to gzip, while the headers still can be changed, and is encoded
+ * as it is written.
+ */
+final class CompressingOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpServletResponse response;
+    private final int threshold;
+    private ByteArrayOutputStream buffer;
+    private OutputStream target;
+    private boolean closed;
+
+    CompressingOutputStream(final HttpServletResponse response, final int threshold) {
+        this.response = response;
+        this.threshold = threshold;
+        this.buffer = new ByteArrayOutputStream(Math.min(threshold, BUFFER_SIZE));
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (target == null) {
+            if (buffer.size() + len < threshold) {
+                buffer.write(b, off, len);
+                return;
+            }
+            response.setHeader(Compression.HEADER_CONTENT_ENCODING, Compression.ENCODING_GZIP);
+            target = new GZIPOutputStream(response.getOutputStream(), BUFFER_SIZE);
+            buffer.writeTo(target);
+            buffer = null;
+        }
+        target.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (target != null) {
+            target.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (target == null) {
+            response.setContentLength(buffer.size());
+            target = response.getOutputStream();
+            buffer.writeTo(target);
+            buffer = null;
+        }
+        target.close();
+    }
+}
@@ -0,0 +1,128 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+
+import com.google.common.base.Utf8;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * Negotiated gzip encoding of responses at least TCHALLENGE_COMPRESSION_MIN_BYTES long (1024 by default).
+ * Responses of compressible types vary by Accept-Encoding whatever their size, as any of them may be encoded.
+ *
+ * Bodies returned by routes as strings are checked by {@link #after} and encoded by Spark while they are written,
+ * bodies written by the routes themselves go through {@link #outputStream}.
+ */
+public final class Compression {
+
+    public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    public static final String HEADER_VARY = "Vary";
+    public static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    public static final String ENCODING_GZIP = "gzip";
+
+    private static final int DEFAULT_MIN_SIZE = 1024;
+    private static final int MIN_SIZE;
+
+    static {
+        final String value = System.getenv("TCHALLENGE_COMPRESSION_MIN_BYTES");
+        MIN_SIZE = value != null && !value.isEmpty() ? Integer.parseInt(value) : DEFAULT_MIN_SIZE;
+    }
+
+    /**
+     * Checks whether the client accepts gzip, an explicit zero quality value rejects it.
+     */
+    public static boolean acceptsGzip(final Request request) {
+        final String header = request.headers(HEADER_ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (final String candidate : header.split(",")) {
+            final String[] parts = candidate.split(";");
+            final String coding = parts[0].trim().toLowerCase();
+            if (coding.equals(ENCODING_GZIP)) {
+                return !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Opens the response body for a route writing it itself, gzip encoded once it reaches the threshold
+     * if the client accepts it. The stream must be closed to complete the response.
+     */
+    public static OutputStream outputStream(final Request request, final Response response) throws IOException {
+        varyByEncoding(response);
+        if (!acceptsGzip(request)) {
+            return response.raw().getOutputStream();
+        }
+        return new CompressingOutputStream(response.raw(), MIN_SIZE);
+    }
+
+    /**
+     * After-filter marking string bodies above the threshold for gzip encoding. Spark encodes the body
+     * on the fly when the response carries the gzip content encoding.
+     */
+    public static void after(final Request request, final Response response) {
+        if (response.raw().isCommitted() || response.raw().getHeader(HEADER_CONTENT_ENCODING) != null) {
+            return;
+        }
+        final String body = response.body();
+        if (body == null || !compressible(response.raw().getContentType())) {
+            return;
+        }
+        varyByEncoding(response);
+        if (size(response, body) >= MIN_SIZE && acceptsGzip(request)) {
+            response.header(HEADER_CONTENT_ENCODING, ENCODING_GZIP);
+        }
+    }
+
+    /**
+     * Size of the body as written, the declared content length if any or the length of the body encoded in UTF-8.
+     */
+    private static long size(final Response response, final String body) {
+        final String contentLength = response.raw().getHeader(HEADER_CONTENT_LENGTH);
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (final NumberFormatException exception) {
+                // falls back to the body itself
+            }
+        }
+        return Utf8.encodedLength(body);
+    }
+
+    /**
+     * Adds Accept-Encoding to the Vary header, keeping the fields other filters have already listed there.
+     */
+    static void varyByEncoding(final Response response) {
+        final Collection<String> values = response.raw().getHeaders(HEADER_VARY);
+        for (final String value : values) {
+            for (final String field : value.split(",")) {
+                if (field.trim().equalsIgnoreCase(HEADER_ACCEPT_ENCODING)) {
+                    return;
+                }
+            }
+        }
+        response.raw().addHeader(HEADER_VARY, HEADER_ACCEPT_ENCODING);
+    }
+
+    private static boolean compressible(final String contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        final String type = contentType.toLowerCase();
+        return type.startsWith("text/")
+                || type.startsWith("application/json")
+                || type.startsWith("application/yaml")
+                || type.startsWith("application/xml")
+                || type.startsWith("application/javascript");
+    }
+
+    private Compression() {
+
+    }
+}
@@ -0,0 +1,115 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+import com.google.common.hash.Hashing;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * Conditional GET support: validators are emitted with the response and a matching request is answered with 304.
+ *
+ * Handlers knowing a validator up front call {@link #notModified} before building the response, everything else
+ * is covered by {@link #after}, which tags the rendered body with a weak content hash.
+ */
+public final class ConditionalRequests {
+
+    public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_NOT_MODIFIED = 304;
+
+    public static String weak(final String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    public static String weakOfContent(final String content) {
+        return weak(Hashing.sipHash24().hashString(content, StandardCharsets.UTF_8).toString());
+    }
+
+    /**
+     * Emits the validators and checks them against the request. If-None-Match takes precedence over
+     * If-Modified-Since, either validator may be null.
+     *
+     * @return true if the response status is set to 304 and the handler must return an empty body
+     */
+    public static boolean notModified(final Request request,
+                                      final Response response,
+                                      final String entityTag,
+                                      final Instant lastModified) {
+        if (entityTag != null) {
+            response.header(EntityTags.HEADER_ETAG, entityTag);
+        }
+        if (lastModified != null) {
+            response.header(HEADER_LAST_MODIFIED, format(lastModified));
+        }
+        if (!isSafe(request)) {
+            return false;
+        }
+        final boolean matches;
+        if (entityTag != null && request.headers(EntityTags.HEADER_IF_NONE_MATCH) != null) {
+            matches = EntityTags.noneMatch(request, entityTag);
+        } else if (lastModified != null) {
+            matches = notModifiedSince(request, lastModified);
+        } else {
+            matches = false;
+        }
+        if (matches) {
+            response.status(STATUS_NOT_MODIFIED);
+        }
+        return matches;
+    }
+
+    /**
+     * After-filter tagging successful GET responses rendered as a string. Responses already carrying a validator,
+     * responses with a binary body and streamed responses, which are already committed, are left as is.
+     */
+    public static void after(final Request request, final Response response) {
+        if (!isSafe(request) || response.status() != STATUS_OK || response.raw().isCommitted()) {
+            return;
+        }
+        if (response.raw().getHeader(EntityTags.HEADER_ETAG) != null) {
+            return;
+        }
+        final String body = response.body();
+        if (body == null || body.isEmpty()) {
+            return;
+        }
+        if (notModified(request, response, weakOfContent(body), null)) {
+            response.body("");
+        }
+    }
+
+    private static boolean isSafe(final Request request) {
+        return "GET".equals(request.requestMethod()) || "HEAD".equals(request.requestMethod());
+    }
+
+    private static boolean notModifiedSince(final Request request, final Instant lastModified) {
+        final String header = request.headers(HEADER_IF_MODIFIED_SINCE);
+        if (header == null) {
+            return false;
+        }
+        try {
+            final Instant since = ZonedDateTime.parse(header, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+        } catch (DateTimeParseException exception) {
+            return false;
+        }
+    }
+
+    private static String format(final Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atZone(ZoneOffset.UTC));
+    }
+
+    private ConditionalRequests() {
+
+    }
+}
@@ -0,0 +1,98 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * Version based entity tags for optimistic concurrency over HTTP.
+ *
+ * The tags are weak: a version is served in several formats and encodings, so it names the entity rather than
+ * its bytes. If-Match is checked against the version, regardless of the weakness of the tag sent back.
+ */
+public final class EntityTags {
+
+    public static final String HEADER_ETAG = "ETag";
+    public static final String HEADER_IF_MATCH = "If-Match";
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    public static String of(final long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Tag of a version whose representation also depends on other data, named by the variant. If-Match still
+     * checks the version only.
+     */
+    public static String of(final long version, final String variant) {
+        return "W/\"" + version + "-" + variant + "\"";
+    }
+
+    public static void tag(final Response response, final long version) {
+        response.header(HEADER_ETAG, of(version));
+    }
+
+    /**
+     * Extracts the version expected by the If-Match header.
+     *
+     * @return null if the header is absent or matches any version
+     */
+    public static Long expectedVersion(final Request request) {
+        final String header = request.headers(HEADER_IF_MATCH);
+        if (header == null || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        final int variant = tag.indexOf('-');
+        if (variant > 0) {
+            tag = tag.substring(0, variant);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("If-Match header is malformed");
+        }
+    }
+
+    /**
+     * Checks the If-None-Match header against the current version using the weak comparison.
+     *
+     * @return true if the client already has the current version and 304 may be sent
+     */
+    public static boolean noneMatch(final Request request, final long version) {
+        return noneMatch(request, of(version));
+    }
+
+    /**
+     * Checks the If-None-Match header against the given entity tag, weak or strong, using the weak comparison.
+     */
+    public static boolean noneMatch(final Request request, final String entityTag) {
+        final String header = request.headers(HEADER_IF_NONE_MATCH);
+        if (header == null) {
+            return false;
+        }
+        final String current = entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+        for (final String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private EntityTags() {
+
+    }
+}
@@ -0,0 +1,11 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+/**
+ * Thrown when a request body exceeds the maximum size accepted by the service.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(final long maxSize) {
+        super("Request body exceeds " + maxSize + " bytes");
+    }
+}
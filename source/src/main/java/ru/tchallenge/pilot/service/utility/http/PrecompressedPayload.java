@@ -0,0 +1,67 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * Payload which never changes, compressed once and sent in the encoding the client accepts.
+ */
+public final class PrecompressedPayload {
+
+    public static PrecompressedPayload of(final String contentType, final String content) {
+        return new PrecompressedPayload(contentType, content);
+    }
+
+    private final String contentType;
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String entityTag;
+
+    private PrecompressedPayload(final String contentType, final String content) {
+        this.contentType = contentType;
+        this.identity = content.getBytes(StandardCharsets.UTF_8);
+        this.gzip = gzip(identity);
+        this.entityTag = ConditionalRequests.weakOfContent(content);
+    }
+
+    /**
+     * Writes the payload to the response.
+     *
+     * @return empty body for the route, the response is already written
+     */
+    public String send(final Request request, final Response response) {
+        Compression.varyByEncoding(response);
+        if (ConditionalRequests.notModified(request, response, entityTag, null)) {
+            return "";
+        }
+        final boolean compressed = Compression.acceptsGzip(request) && gzip.length < identity.length;
+        final byte[] body = compressed ? gzip : identity;
+        response.header("Content-Type", contentType);
+        if (compressed) {
+            response.header(Compression.HEADER_CONTENT_ENCODING, Compression.ENCODING_GZIP);
+        }
+        response.raw().setContentLength(body.length);
+        try (OutputStream output = response.raw().getOutputStream()) {
+            output.write(body);
+        } catch (final IOException exception) {
+            throw new RuntimeException("Response cannot be written", exception);
+        }
+        return "";
+    }
+
+    private static byte[] gzip(final byte[] content) {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream output = new GZIPOutputStream(result)) {
+            output.write(content);
+        } catch (final IOException exception) {
+            throw new RuntimeException("Payload cannot be compressed", exception);
+        }
+        return result.toByteArray();
+    }
+}
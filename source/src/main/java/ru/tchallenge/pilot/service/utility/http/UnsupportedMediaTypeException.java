@@ -0,0 +1,11 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+/**
+ * Thrown when a request body is neither in a supported format nor readable as JSON.
+ */
+public class UnsupportedMediaTypeException extends RuntimeException {
+
+    public UnsupportedMediaTypeException(final String contentType) {
+        super("Request body format is not supported: " + contentType);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.tchallenge.pilot.service.utility.serialization;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import ru.tchallenge.pilot.service.utility.http.PayloadTooLargeException;
+
+/**
+ * Stream failing as soon as more than the given number of bytes is read from it.
+ */
+final class BoundedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private long count;
+
+    BoundedInputStream(final InputStream input, final long maxSize) {
+        super(input);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result = super.read();
+        if (result != -1) {
+            count(1);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int result = super.read(b, off, len);
+        if (result > 0) {
+            count(result);
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final long result = super.skip(n);
+        count(result);
+        return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(final long bytes) {
+        count += bytes;
+        if (count > maxSize) {
+            throw new PayloadTooLargeException(maxSize);
+        }
+    }
+}
@@ -1,57 +1,284 @@
 package ru.tchallenge.pilot.service.utility.serialization;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.io.ByteStreams;
+import ru.tchallenge.pilot.service.utility.http.Compression;
+import ru.tchallenge.pilot.service.utility.http.PayloadTooLargeException;
+import ru.tchallenge.pilot.service.utility.http.UnsupportedMediaTypeException;
 import ru.tchallenge.pilot.service.utility.validation.ValidationAware;
 
 import spark.Request;
 import spark.Response;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Binding of request and response bodies. The format is negotiated by {@link MediaFormat}, JSON unless the
+ * client asks for a binary one.
+ */
 public final class Json {
 
-    public static String json(final Response response) {
-        return json (null, response);
+    public static Object json(final Request request, final Response response) {
+        return json(null, request, response);
     }
 
-    public static String json(final Object data, final Response response) {
-        response.header("Content-Type", "application/json");
+    /**
+     * Serializes the data in the negotiated format. JSON is returned as a string, so the response filters
+     * can compute validators and compress it, binary formats are written straight to the response.
+     */
+    public static Object json(final Object data, final Request request, final Response response) {
+        final MediaFormat format = MediaFormat.accepted(request);
+        if (format != MediaFormat.JSON) {
+            return write(data, request, response);
+        }
+        describe(format, response);
+        final Object value = data != null ? data : EMPTY;
         try {
-            return OBJECT_MAPPER.writeValueAsString(data != null ? data : EMPTY);
+            return BINDINGS.get(format).writer(value.getClass()).writeValueAsString(value);
+        } catch (final IOException exception) {
+            throw new RuntimeException("JSON serialization has failed", exception);
+        }
+    }
+
+    /**
+     * Serializes the data straight to the response output stream, compressed if the client accepts it, without
+     * an intermediate string. Suits large documents, validators of small ones are better computed from the string
+     * returned by {@link #json(Object, Request, Response)}.
+     *
+     * @return empty body for the route, the response is already written
+     */
+    public static String write(final Object data, final Request request, final Response response) {
+        final MediaFormat format = MediaFormat.accepted(request);
+        describe(format, response);
+        final Object value = data != null ? data : EMPTY;
+        try (OutputStream output = Compression.outputStream(request, response)) {
+            BINDINGS.get(format).writer(value.getClass()).writeValue(output, value);
+        } catch (final IOException exception) {
+            throw new RuntimeException("JSON serialization has failed", exception);
+        }
+        return "";
+    }
+
+    /**
+     * Responds with an already serialized JSON document, transcoded on the fly if another format is negotiated.
+     */
+    public static String serialized(final byte[] json, final Request request, final Response response) {
+        final MediaFormat format = MediaFormat.accepted(request);
+        describe(format, response);
+        try (OutputStream output = Compression.outputStream(request, response)) {
+            if (format == MediaFormat.JSON) {
+                output.write(json);
+            } else {
+                try (JsonParser parser = BINDINGS.get(MediaFormat.JSON).mapper.getFactory().createParser(json);
+                     JsonGenerator generator = BINDINGS.get(format).mapper.getFactory().createGenerator(output)) {
+                    parser.nextToken();
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+        } catch (final IOException exception) {
+            throw new RuntimeException("JSON serialization has failed", exception);
+        }
+        return "";
+    }
+
+    public static byte[] bytes(final Object data) {
+        final Object value = data != null ? data : EMPTY;
+        try {
+            return BINDINGS.get(MediaFormat.JSON).writer(value.getClass()).writeValueAsBytes(value);
+        } catch (final IOException exception) {
+            throw new RuntimeException("JSON serialization has failed", exception);
+        }
+    }
+
+    /**
+     * Writes the items as an array straight to the response output stream, one item at a time, compressed
+     * if the client accepts it.
+     * The items are pulled lazily, so a cursor backed iterable is never materialized.
+     *
+     * @return empty body for the route, the response is already written
+     */
+    public static String stream(final Iterable<?> items, final Request request, final Response response) {
+        final Binding binding = BINDINGS.get(MediaFormat.accepted(request));
+        try (JsonGenerator generator = generator(binding, request, response)) {
+            writeArray(binding, generator, items);
+        } catch (final IOException exception) {
+            throw new RuntimeException("JSON serialization has failed", exception);
+        }
+        return "";
+    }
+
+    /**
+     * Writes an object with the items streamed as its "items" array followed by the given attributes.
+     */
+    public static String stream(final Iterable<?> items,
+                                final Map<String, ?> attributes,
+                                final Request request,
+                                final Response response) {
+        final Binding binding = BINDINGS.get(MediaFormat.accepted(request));
+        try (JsonGenerator generator = generator(binding, request, response)) {
+            generator.writeStartObject();
+            generator.writeFieldName("items");
+            writeArray(binding, generator, items);
+            for (final Map.Entry<String, ?> attribute : attributes.entrySet()) {
+                if (attribute.getValue() != null) {
+                    generator.writeFieldName(attribute.getKey());
+                    binding.streamWriter.writeValue(generator, attribute.getValue());
+                }
+            }
+            generator.writeEndObject();
         } catch (final IOException exception) {
             throw new RuntimeException("JSON serialization has failed", exception);
         }
+        return "";
+    }
+
+    private static void describe(final MediaFormat format, final Response response) {
+        response.header(MediaFormat.HEADER_CONTENT_TYPE, format.getMediaType());
+        response.header(HEADER_VARY, MediaFormat.HEADER_ACCEPT);
     }
 
+    private static JsonGenerator generator(final Binding binding,
+                                           final Request request,
+                                           final Response response) throws IOException {
+        describe(binding.format, response);
+        return binding.mapper.getFactory().createGenerator(Compression.outputStream(request, response));
+    }
+
+    private static void writeArray(final Binding binding,
+                                   final JsonGenerator generator,
+                                   final Iterable<?> items) throws IOException {
+        final Iterator<?> iterator = items.iterator();
+        try {
+            generator.writeStartArray();
+            while (iterator.hasNext()) {
+                final Object item = iterator.next();
+                (item != null ? binding.writer(item.getClass()) : binding.streamWriter).writeValue(generator, item);
+            }
+            generator.writeEndArray();
+        } finally {
+            if (iterator instanceof Closeable) {
+                ((Closeable) iterator).close();
+            }
+        }
+    }
+
+    /**
+     * Binds the request body, in the format given by its content type, straight from the request stream and
+     * validates the bound object. Bodies larger than TCHALLENGE_MAX_BODY_BYTES (1 MB by default) are rejected,
+     * by their declared length before any of it is read.
+     *
+     * The body may be bound again later in the same request, e.g. by an interceptor and then by the route.
+     * A body of an unknown content type is bound as JSON and rejected as unsupported if it is not.
+     */
     public static <T extends ValidationAware> T body(final Class<T> type, final Request request) {
-        final String requestBody = request.body();
-        if (requestBody == null || requestBody.isEmpty()) {
-            throw new RuntimeException("Request body is missing");
+        if (request.raw().getContentLengthLong() > MAX_BODY_SIZE) {
+            throw new PayloadTooLargeException(MAX_BODY_SIZE);
         }
+        final Binding binding = BINDINGS.get(MediaFormat.ofContent(request));
         final T result;
-        try {
-            result = OBJECT_MAPPER.readValue(request.body(), type);
+        try (InputStream input = input(request);
+             JsonParser parser = binding.mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() == null) {
+                throw new RuntimeException("Request body is missing");
+            }
+            result = binding.reader(type).readValue(parser);
         } catch (final IOException exception) {
+            if (!MediaFormat.recognizesContent(request)) {
+                throw new UnsupportedMediaTypeException(request.headers(MediaFormat.HEADER_CONTENT_TYPE));
+            }
             throw new RuntimeException("Request body format is invalid", exception);
         }
         result.validate();
         return result;
     }
 
+    /**
+     * Opens the request body. Spark caches bodies of a known length, so they are streamed as is, chunked ones
+     * are read once and kept in a request attribute for the following reads.
+     */
+    private static InputStream input(final Request request) throws IOException {
+        if (request.raw().getContentLengthLong() >= 0) {
+            return new BoundedInputStream(request.raw().getInputStream(), MAX_BODY_SIZE);
+        }
+        byte[] body = request.attribute(BODY_ATTRIBUTE_KEY);
+        if (body == null) {
+            try (InputStream input = new BoundedInputStream(request.raw().getInputStream(), MAX_BODY_SIZE)) {
+                body = ByteStreams.toByteArray(input);
+            }
+            request.attribute(BODY_ATTRIBUTE_KEY, body);
+        }
+        return new ByteArrayInputStream(body);
+    }
+
+    /**
+     * Mapper of a single format with its writers and readers bound to exact types, so their serializers
+     * are resolved once rather than on every call.
+     */
+    private static final class Binding {
+
+        private final MediaFormat format;
+        private final ObjectMapper mapper;
+        private final ObjectWriter streamWriter;
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        private Binding(final MediaFormat format, final List<Module> modules) {
+            this.format = format;
+            this.mapper = new ObjectMapper(format.createFactory());
+            this.mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            this.mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+            this.mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+            this.mapper.configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL, true);
+            this.mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+            this.mapper.registerModules(modules);
+            this.streamWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        private ObjectWriter writer(final Class<?> type) {
+            return writers.computeIfAbsent(type, t -> mapper.writerFor(t).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+
+        private ObjectReader reader(final Class<?> type) {
+            return readers.computeIfAbsent(type, mapper::readerFor);
+        }
+    }
+
     private static final Object EMPTY = new Object();
-    private static final ObjectMapper OBJECT_MAPPER;
+    private static final Map<MediaFormat, Binding> BINDINGS = new EnumMap<>(MediaFormat.class);
+    private static final long DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+    private static final long MAX_BODY_SIZE;
+    private static final String AFTERBURNER_MODULE = "AfterburnerModule";
+    private static final String HEADER_VARY = "Vary";
+    private static final String BODY_ATTRIBUTE_KEY = "tchallenge-request-body";
 
     static {
-        OBJECT_MAPPER = new ObjectMapper();
-        OBJECT_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        OBJECT_MAPPER.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        OBJECT_MAPPER.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-        OBJECT_MAPPER.configure(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL, true);
-        OBJECT_MAPPER.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        OBJECT_MAPPER.findAndRegisterModules();
+        final String maxBodySize = System.getenv("TCHALLENGE_MAX_BODY_BYTES");
+        MAX_BODY_SIZE = maxBodySize != null && !maxBodySize.isEmpty() ? Long.parseLong(maxBodySize) : DEFAULT_MAX_BODY_SIZE;
+        // Afterburner replaces reflective property access with generated bytecode unless disabled
+        final boolean afterburner = !"false".equalsIgnoreCase(System.getenv("TCHALLENGE_JSON_AFTERBURNER"));
+        final List<Module> modules = ObjectMapper.findModules();
+        modules.removeIf(module -> !afterburner && AFTERBURNER_MODULE.equals(module.getModuleName()));
+        for (final MediaFormat format : MediaFormat.values()) {
+            BINDINGS.put(format, new Binding(format, modules));
+        }
     }
 
     private Json() {
@@ -0,0 +1,145 @@
+package ru.tchallenge.pilot.service.utility.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import spark.Request;
+
+/**
+ * Representation formats of request and response bodies, all of them bound through the same Jackson annotations.
+ */
+public enum MediaFormat {
+
+    JSON("application/json") {
+        @Override
+        JsonFactory createFactory() {
+            return new JsonFactory();
+        }
+    },
+    CBOR("application/cbor") {
+        @Override
+        JsonFactory createFactory() {
+            return new CBORFactory();
+        }
+    },
+    SMILE("application/x-jackson-smile") {
+        @Override
+        JsonFactory createFactory() {
+            return new SmileFactory();
+        }
+    },
+    MESSAGE_PACK("application/x-msgpack") {
+        @Override
+        JsonFactory createFactory() {
+            return new MessagePackFactory();
+        }
+    };
+
+    public static final String HEADER_ACCEPT = "Accept";
+    public static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+    private static final String ACCEPTED_ATTRIBUTE_KEY = "tchallenge-media-format";
+
+    /**
+     * Picks the supported format the client prefers by the Accept header, JSON if there is none.
+     */
+    public static MediaFormat accepted(final Request request) {
+        final MediaFormat negotiated = request.attribute(ACCEPTED_ATTRIBUTE_KEY);
+        if (negotiated != null) {
+            return negotiated;
+        }
+        final MediaFormat result = negotiate(request.headers(HEADER_ACCEPT));
+        request.attribute(ACCEPTED_ATTRIBUTE_KEY, result);
+        return result;
+    }
+
+    /**
+     * Determines the format of the request body by the Content-Type header. JSON is assumed if the header is
+     * missing or names another type, e.g. text/plain sent by browsers to avoid CORS preflight requests.
+     */
+    public static MediaFormat ofContent(final Request request) {
+        final MediaFormat result = declared(request);
+        return result != null ? result : JSON;
+    }
+
+    /**
+     * Checks whether the Content-Type header names one of the formats, or is missing so JSON is implied.
+     */
+    public static boolean recognizesContent(final Request request) {
+        final String header = request.headers(HEADER_CONTENT_TYPE);
+        return header == null || header.trim().isEmpty() || declared(request) != null;
+    }
+
+    private static MediaFormat declared(final Request request) {
+        final String header = request.headers(HEADER_CONTENT_TYPE);
+        if (header == null || header.trim().isEmpty()) {
+            return null;
+        }
+        return byMediaType(header.split(";")[0].trim().toLowerCase());
+    }
+
+    private static MediaFormat negotiate(final String header) {
+        if (header == null) {
+            return JSON;
+        }
+        MediaFormat result = JSON;
+        double best = -1;
+        for (final String range : header.split(",")) {
+            final String[] parts = range.split(";");
+            final String mediaType = parts[0].trim().toLowerCase();
+            final MediaFormat candidate = mediaType.equals("*/*") || mediaType.equals("application/*")
+                    ? JSON
+                    : byMediaType(mediaType);
+            final double quality = quality(parts);
+            if (candidate != null && quality > 0 && quality > best) {
+                result = candidate;
+                best = quality;
+            }
+        }
+        return result;
+    }
+
+    private static double quality(final String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException exception) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static MediaFormat byMediaType(final String mediaType) {
+        switch (mediaType) {
+            case "application/json":
+                return JSON;
+            case "application/cbor":
+                return CBOR;
+            case "application/x-jackson-smile":
+                return SMILE;
+            case "application/x-msgpack":
+            case "application/msgpack":
+                return MESSAGE_PACK;
+            default:
+                return null;
+        }
+    }
+
+    private final String mediaType;
+
+    MediaFormat(final String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    abstract JsonFactory createFactory();
+}
@@ -0,0 +1,165 @@
+package ru.tchallenge.pilot.service.domain.problem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.tchallenge.pilot.service.context.ApplicationComponent;
+import ru.tchallenge.pilot.service.context.ApplicationContext;
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProblemSamplerTest {
+
+    private MemoryProblemCatalog catalog;
+    private ProblemSampler sampler;
+
+    @Before
+    public void setUp() {
+        catalog = new MemoryProblemCatalog();
+        sampler = new ProblemSampler();
+        sampler.setContext(new ApplicationContext() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends ApplicationComponent> T getComponent(final Class<T> type) {
+                return (T) catalog;
+            }
+        });
+        sampler.init();
+    }
+
+    @Test
+    public void drawsDistinctProblemsOfTheRequestedShape() {
+        final List<ProblemRecord> matching = add(10, ProblemDifficulty.EASY, ProblemCategory.JAVA);
+        add(10, ProblemDifficulty.HARD, ProblemCategory.JAVA);
+        add(10, ProblemDifficulty.EASY, ProblemCategory.OOD);
+        catalog.add(problem(ProblemStatus.BLACKLISTED, ProblemDifficulty.EASY, ProblemCategory.JAVA));
+
+        for (int i = 0; i < 100; i++) {
+            final List<ProblemRecord> sample = sampler.sample(invoice(ProblemDifficulty.EASY, 4, ProblemCategory.JAVA));
+            assertEquals(4, sample.size());
+            assertEquals(4, new HashSet<>(sample).size());
+            assertTrue(matching.containsAll(sample));
+        }
+    }
+
+    @Test
+    public void drawsEveryProblemWithTheSameProbability() {
+        final List<ProblemRecord> matching = add(10, ProblemDifficulty.MODERATE, ProblemCategory.ALGORITHMS);
+        final Map<ProblemRecord, Integer> draws = new HashMap<>();
+        final int samples = 30000;
+        final int number = 3;
+
+        for (int i = 0; i < samples; i++) {
+            for (final ProblemRecord problem : sampler.sample(invoice(ProblemDifficulty.MODERATE, number, ProblemCategory.ALGORITHMS))) {
+                draws.merge(problem, 1, Integer::sum);
+            }
+        }
+
+        final double expected = (double) samples * number / matching.size();
+        for (final ProblemRecord problem : matching) {
+            final int actual = draws.getOrDefault(problem, 0);
+            assertTrue("Problem drawn " + actual + " times, expected about " + expected,
+                    Math.abs(actual - expected) < expected * 0.05);
+        }
+    }
+
+    @Test
+    public void countsProblemsOfSeveralRequestedCategoriesOnce() {
+        final List<ProblemRecord> both = add(3, ProblemDifficulty.EASY, ProblemCategory.JAVA, ProblemCategory.OOD);
+        final List<ProblemRecord> java = add(2, ProblemDifficulty.EASY, ProblemCategory.JAVA);
+        final List<ProblemRecord> ood = add(2, ProblemDifficulty.EASY, ProblemCategory.OOD, ProblemCategory.COMMON);
+
+        final List<ProblemRecord> sample = sampler.sample(invoice(ProblemDifficulty.EASY, 100, ProblemCategory.JAVA, ProblemCategory.OOD));
+
+        final Set<ProblemRecord> expected = new HashSet<>();
+        expected.addAll(both);
+        expected.addAll(java);
+        expected.addAll(ood);
+        assertEquals(expected.size(), sample.size());
+        assertEquals(expected, new HashSet<>(sample));
+    }
+
+    @Test
+    public void drawsNothingWithoutCategoriesOrDifficulty() {
+        add(5, ProblemDifficulty.EASY, ProblemCategory.JAVA);
+
+        assertTrue(sampler.sample(invoice(ProblemDifficulty.EASY, 3)).isEmpty());
+        assertTrue(sampler.sample(invoice(null, 3, ProblemCategory.JAVA)).isEmpty());
+    }
+
+    @Test
+    public void rebuildsTheIndexWhenTheCatalogChanges() {
+        add(2, ProblemDifficulty.HARD, ProblemCategory.JAVASCRIPT);
+        assertEquals(2, sampler.sample(invoice(ProblemDifficulty.HARD, 5, ProblemCategory.JAVASCRIPT)).size());
+
+        add(2, ProblemDifficulty.HARD, ProblemCategory.JAVASCRIPT);
+
+        assertEquals(4, sampler.sample(invoice(ProblemDifficulty.HARD, 5, ProblemCategory.JAVASCRIPT)).size());
+    }
+
+    private List<ProblemRecord> add(final int count, final ProblemDifficulty difficulty, final ProblemCategory... categories) {
+        final List<ProblemRecord> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(catalog.add(problem(ProblemStatus.APPROVED, difficulty, categories)));
+        }
+        return result;
+    }
+
+    private static ProblemRecord problem(final ProblemStatus status,
+                                         final ProblemDifficulty difficulty,
+                                         final ProblemCategory... categories) {
+        return ProblemRecord.builder()
+                .id(new Id())
+                .status(status)
+                .difficulty(difficulty)
+                .categories(ImmutableList.copyOf(categories))
+                .build();
+    }
+
+    private static ProblemRandomInvoice invoice(final ProblemDifficulty difficulty,
+                                                final int number,
+                                                final ProblemCategory... categories) {
+        final Set<ProblemCategory> requested = EnumSet.noneOf(ProblemCategory.class);
+        requested.addAll(ImmutableList.copyOf(categories));
+        return ProblemRandomInvoice.builder()
+                .difficulty(difficulty)
+                .number(number)
+                .categories(requested)
+                .build();
+    }
+
+    private static final class MemoryProblemCatalog extends ProblemCatalog {
+
+        private final List<ProblemRecord> problems = new ArrayList<>();
+        private long version;
+
+        private ProblemRecord add(final ProblemRecord problem) {
+            problems.add(problem);
+            version++;
+            return problem;
+        }
+
+        @Override
+        public Collection<ProblemRecord> getAll() {
+            return new ArrayList<>(problems);
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+}
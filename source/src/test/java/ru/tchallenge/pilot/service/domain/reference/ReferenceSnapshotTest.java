@@ -0,0 +1,43 @@
+package ru.tchallenge.pilot.service.domain.reference;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import ru.tchallenge.pilot.service.domain.event.Event;
+import ru.tchallenge.pilot.service.domain.event.EventStatus;
+import ru.tchallenge.pilot.service.utility.data.Id;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class ReferenceSnapshotTest {
+
+    @Test
+    public void sameContentKeepsTheTag() {
+        final ReferenceSnapshot snapshot = ReferenceSnapshot.EMPTY.next(ImmutableList.of(), events("Spring Camp"));
+        final ReferenceSnapshot next = snapshot.next(ImmutableList.of(), events("Spring Camp"));
+        assertSame(snapshot, next);
+        assertEquals(snapshot.getEntityTag(), next.getEntityTag());
+    }
+
+    @Test
+    public void editedEventChangesTheTag() {
+        final ReferenceSnapshot snapshot = ReferenceSnapshot.EMPTY.next(ImmutableList.of(), events("Spring Camp"));
+        final ReferenceSnapshot next = snapshot.next(ImmutableList.of(), events("Summer Camp"));
+        assertEquals(snapshot.getVersion() + 1, next.getVersion());
+        assertNotEquals(snapshot.getEntityTag(), next.getEntityTag());
+        assertEquals("Summer Camp", next.event(new Id("5a4b3c2d1e0f5a4b3c2d1e0f")).getCaption());
+    }
+
+    private static List<Event> events(final String caption) {
+        return ImmutableList.of(Event.builder()
+                .id(new Id("5a4b3c2d1e0f5a4b3c2d1e0f"))
+                .permalink("camp")
+                .caption(caption)
+                .status(EventStatus.APPROVED)
+                .build());
+    }
+}
@@ -0,0 +1,112 @@
+package ru.tchallenge.pilot.service.utility.cache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+    private static final long ORIGIN = 1_000_000L;
+    private static final long TICK = 10;
+    private static final int SLOTS = 8;
+    private static final int LEVELS = 3;
+    private static final long SPAN = TICK * SLOTS * SLOTS * SLOTS;
+
+    @Test
+    public void deliversWithinATickOfDeadline() {
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, SLOTS, LEVELS, ORIGIN);
+        final Random random = new Random(42);
+        final Set<Long> deadlines = new HashSet<>();
+        while (deadlines.size() < 1000) {
+            deadlines.add(ORIGIN + 1 + random.nextInt((int) SPAN));
+        }
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+        final Map<Long, Long> deliveries = new HashMap<>();
+        run(wheel, ORIGIN + SPAN + TICK, deliveries);
+        assertEquals(deadlines, deliveries.keySet());
+        deliveries.forEach((deadline, deliveredAt) -> assertOnTime(deadline, deliveredAt));
+    }
+
+    @Test
+    public void cascadesDeadlinesOfEveryLevel() {
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, SLOTS, LEVELS, ORIGIN);
+        final Map<Long, Long> deliveries = new HashMap<>();
+        // just past the span of the first level, of the second level and on the slot boundaries of both
+        final long[] deadlines = {
+                ORIGIN + TICK * SLOTS - 1,
+                ORIGIN + TICK * SLOTS,
+                ORIGIN + TICK * SLOTS + 1,
+                ORIGIN + TICK * SLOTS * SLOTS - 1,
+                ORIGIN + TICK * SLOTS * SLOTS,
+                ORIGIN + TICK * SLOTS * SLOTS + 1,
+                ORIGIN + SPAN - 1
+        };
+        for (final long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        run(wheel, ORIGIN + SPAN + TICK, deliveries);
+        for (final long deadline : deadlines) {
+            assertTrue("not delivered: " + deadline, deliveries.containsKey(deadline));
+            assertOnTime(deadline, deliveries.get(deadline));
+        }
+    }
+
+    @Test
+    public void parksDeadlinesBeyondTheSpan() {
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, SLOTS, LEVELS, ORIGIN);
+        final Map<Long, Long> deliveries = new HashMap<>();
+        final long deadline = ORIGIN + 3 * SPAN + 7;
+        wheel.schedule(deadline, deadline);
+        run(wheel, deadline - 1, deliveries);
+        assertFalse(deliveries.containsKey(deadline));
+        run(wheel, deadline + TICK, deliveries);
+        assertOnTime(deadline, deliveries.get(deadline));
+    }
+
+    @Test
+    public void deliversValuesScheduledWhileAdvancing() {
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, SLOTS, LEVELS, ORIGIN);
+        final Map<Long, Long> deliveries = new HashMap<>();
+        run(wheel, ORIGIN + 5 * TICK + 3, deliveries);
+        final long deadline = ORIGIN + 5 * TICK + 3 + TICK * SLOTS * 2;
+        wheel.schedule(deadline, deadline);
+        run(wheel, deadline + TICK, deliveries);
+        assertOnTime(deadline, deliveries.get(deadline));
+    }
+
+    @Test
+    public void deliversPastDeadlinesOnTheNextTick() {
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, SLOTS, LEVELS, ORIGIN);
+        final Map<Long, Long> deliveries = new HashMap<>();
+        run(wheel, ORIGIN + 20 * TICK, deliveries);
+        wheel.schedule(ORIGIN, ORIGIN);
+        wheel.advance(ORIGIN + 20 * TICK, value -> deliveries.put(value, ORIGIN + 20 * TICK));
+        assertFalse(deliveries.containsKey(ORIGIN));
+        wheel.advance(ORIGIN + 21 * TICK, value -> deliveries.put(value, ORIGIN + 21 * TICK));
+        assertEquals(Long.valueOf(ORIGIN + 21 * TICK), deliveries.get(ORIGIN));
+    }
+
+    /**
+     * Advances the wheel a millisecond at a time, recording when every value is delivered.
+     */
+    private static void run(final TimingWheel<Long> wheel, final long until, final Map<Long, Long> deliveries) {
+        for (long now = ORIGIN; now <= until; now++) {
+            final long deliveredAt = now;
+            wheel.advance(now, value -> assertNull(deliveries.put(value, deliveredAt)));
+        }
+    }
+
+    private static void assertOnTime(final long deadline, final long deliveredAt) {
+        assertTrue("early by " + (deadline - deliveredAt) + " ms", deliveredAt >= deadline);
+        assertTrue("late by " + (deliveredAt - deadline) + " ms", deliveredAt < deadline + TICK);
+    }
+}
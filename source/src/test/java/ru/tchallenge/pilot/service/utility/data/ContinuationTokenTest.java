@@ -0,0 +1,46 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ContinuationTokenTest {
+
+    @Test
+    public void decodesTheEncodedId() {
+        for (int i = 0; i < 100; i++) {
+            final Id id = new Id();
+            assertEquals(id, ContinuationToken.decode(ContinuationToken.encode(id)));
+        }
+    }
+
+    @Test
+    public void encodesUrlSafeWithoutPadding() {
+        final Id id = new Id("fbffffffffffffffffffff3f");
+        final String token = ContinuationToken.encode(id);
+        assertEquals(16, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(id, ContinuationToken.decode(token));
+    }
+
+    @Test
+    public void rejectsTokensWhichAreNotBase64() {
+        assertRejected("not a token!");
+    }
+
+    @Test
+    public void rejectsTokensOfAnotherLength() {
+        assertRejected("AAAA");
+    }
+
+    private static void assertRejected(final String token) {
+        try {
+            ContinuationToken.decode(token);
+            fail("Token is accepted: " + token);
+        } catch (RuntimeException e) {
+            assertEquals("Continuation token is invalid", e.getMessage());
+        }
+    }
+}
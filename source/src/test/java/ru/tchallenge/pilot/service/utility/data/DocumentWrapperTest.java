@@ -0,0 +1,132 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import ru.tchallenge.pilot.service.domain.workbook.WorkbookDocument;
+import ru.tchallenge.pilot.service.domain.workbook.assignment.AssignmentDocument;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentWrapperTest {
+
+    @Test
+    public void setsChangedAttributesOnlyAndIncrementsVersion() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(2));
+        workbook.textcode("ABC");
+
+        final BsonDocument update = update(workbook.toUpdateModel(null));
+
+        assertEquals("ABC", set(update).getString("textcode").getValue());
+        assertTrue(set(update).containsKey("lastModifiedAt"));
+        assertEquals(2, set(update).size());
+        assertEquals(1L, update.getDocument("$inc").getInt64("version").getValue());
+    }
+
+    @Test
+    public void setsNestedChangesByTheirPath() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(12));
+        workbook.getAssignments().get(1).setSolution("first");
+        workbook.assignmentReference(10).setScore(5);
+
+        final BsonDocument set = set(update(workbook.toUpdateModel(null)));
+
+        assertEquals("first", set.getString("assignments.1.solution").getValue());
+        assertEquals(5, set.getInt32("assignments.10.score").getValue());
+        assertFalse(set.containsKey("assignments"));
+    }
+
+    @Test
+    public void omitsChangesCoveredByAnAncestor() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(12));
+        final List<AssignmentDocument> assignments = workbook.getAssignments();
+        assignments.get(10).setSolution("covered");
+        workbook.assignments(assignments);
+        workbook.getAssignments().get(1).setSolution("covered too");
+
+        final BsonDocument set = set(update(workbook.toUpdateModel(null)));
+
+        assertTrue(set.containsKey("assignments"));
+        assertEquals("covered", set.getArray("assignments").get(10).asDocument().getString("solution").getValue());
+        assertFalse(set.containsKey("assignments.10.solution"));
+        assertFalse(set.containsKey("assignments.1.solution"));
+    }
+
+    @Test
+    public void doesNotTreatSiblingPrefixesAsAncestors() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(12));
+        workbook.assignmentReference(1).setScore(1);
+        workbook.assignmentReference(10).setScore(10);
+        workbook.stage("assignments.1", new Document("score", 1));
+
+        final BsonDocument set = set(update(workbook.toUpdateModel(null)));
+
+        assertTrue(set.containsKey("assignments.1"));
+        assertFalse(set.containsKey("assignments.1.score"));
+        assertEquals(10, set.getInt32("assignments.10.score").getValue());
+    }
+
+    @Test
+    public void forgetsChangesOnceTheUpdateIsCreated() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(2));
+        workbook.textcode("ABC");
+        workbook.toUpdateModel(null);
+
+        final BsonDocument set = set(update(workbook.toUpdateModel(null)));
+
+        assertFalse(set.containsKey("textcode"));
+    }
+
+    @Test
+    public void combinesTheConditionWithTheIdFilter() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(2));
+        workbook.textcode("ABC");
+        final Bson condition = workbook.toVersionFilter();
+
+        final UpdateOneModel<Document> model = workbook.toUpdateModel(condition);
+
+        assertEquals(bson(Filters.and(workbook.getId().toFilter(), condition)), bson(model.getFilter()));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void rejectsAnUpdateOfANestedDocument() {
+        final WorkbookDocument workbook = new WorkbookDocument(workbookDocument(2));
+        final AssignmentDocument assignment = workbook.getAssignments().get(1);
+        assignment.setSolution("nested");
+
+        assignment.toUpdateModel(null);
+    }
+
+    private static Document workbookDocument(final int assignments) {
+        final List<Document> list = new ArrayList<>();
+        for (int index = 0; index < assignments; index++) {
+            list.add(new Document("problemId", new ObjectId()).append("score", 0));
+        }
+        return new Document("_id", new ObjectId())
+                .append("version", 3L)
+                .append("assignments", list);
+    }
+
+    private static BsonDocument update(final UpdateOneModel<Document> model) {
+        return bson(model.getUpdate());
+    }
+
+    private static BsonDocument set(final BsonDocument update) {
+        return update.getDocument("$set");
+    }
+
+    private static BsonDocument bson(final Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry());
+    }
+}
@@ -0,0 +1,126 @@
+package ru.tchallenge.pilot.service.utility.data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceTest {
+
+    @Test
+    public void startsAfterTheInitialValue() {
+        final MemorySequenceRepository repository = new MemorySequenceRepository();
+
+        final Sequence sequence = new Sequence(repository, "test", 10, () -> 41);
+
+        assertEquals(42, sequence.next());
+        assertEquals(43, sequence.next());
+    }
+
+    @Test
+    public void handsOffToTheNextBlockWithoutGaps() {
+        final MemorySequenceRepository repository = new MemorySequenceRepository();
+        final Sequence sequence = new Sequence(repository, "test", 10, null);
+
+        for (long expected = 1; expected <= 25; expected++) {
+            assertEquals(expected, sequence.next());
+        }
+        assertEquals(3, repository.reservations.get());
+        assertEquals(0, repository.initializations.get());
+    }
+
+    @Test
+    public void initializesTheCounterOnce() {
+        final MemorySequenceRepository repository = new MemorySequenceRepository();
+        final Sequence sequence = new Sequence(repository, "test", 2, () -> 100);
+
+        for (int i = 0; i < 7; i++) {
+            sequence.next();
+        }
+        assertEquals(1, repository.initializations.get());
+        assertEquals(4, repository.reservations.get());
+    }
+
+    @Test
+    public void nodesSharingTheCounterGetDisjointBlocks() {
+        final MemorySequenceRepository repository = new MemorySequenceRepository();
+        final Sequence first = new Sequence(repository, "test", 5, null);
+        final Sequence second = new Sequence(repository, "test", 5, null);
+
+        final Set<Long> values = new HashSet<>();
+        long lastOfFirst = 0;
+        long lastOfSecond = 0;
+        for (int i = 0; i < 12; i++) {
+            final long a = first.next();
+            final long b = second.next();
+            assertTrue(a > lastOfFirst);
+            assertTrue(b > lastOfSecond);
+            assertTrue(values.add(a));
+            assertTrue(values.add(b));
+            lastOfFirst = a;
+            lastOfSecond = b;
+        }
+    }
+
+    @Test
+    public void concurrentCallersNeverGetTheSameValue() throws Exception {
+        final MemorySequenceRepository repository = new MemorySequenceRepository();
+        final Sequence sequence = new Sequence(repository, "test", 16, null);
+        final int threads = 8;
+        final int calls = 2000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Set<Long> values = ConcurrentHashMap.newKeySet();
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < calls; i++) {
+                        assertTrue(values.add(sequence.next()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * calls, values.size());
+        assertEquals(threads * calls / 16, repository.reservations.get());
+    }
+
+    private static final class MemorySequenceRepository extends SequenceRepository {
+
+        private final AtomicLong counter = new AtomicLong();
+        private final AtomicInteger initializations = new AtomicInteger();
+        private final AtomicInteger reservations = new AtomicInteger();
+
+        @Override
+        public void initialize(final String name, final long value) {
+            initializations.incrementAndGet();
+            counter.compareAndSet(0, value);
+        }
+
+        @Override
+        public long reserve(final String name, final long blockSize) {
+            reservations.incrementAndGet();
+            return counter.addAndGet(blockSize);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ru.tchallenge.pilot.service.utility.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import spark.Request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EntityTagsTest {
+
+    @Test
+    public void tagsAreWeak() {
+        assertEquals("W/\"42\"", EntityTags.of(42));
+    }
+
+    @Test
+    public void expectedVersionIsAbsentWithoutHeader() {
+        assertNull(EntityTags.expectedVersion(request()));
+    }
+
+    @Test
+    public void expectedVersionIsAbsentForAnyVersion() {
+        assertNull(EntityTags.expectedVersion(request(EntityTags.HEADER_IF_MATCH, " * ")));
+    }
+
+    @Test
+    public void expectedVersionIsParsedFromWeakAndStrongTags() {
+        assertEquals(Long.valueOf(7), EntityTags.expectedVersion(request(EntityTags.HEADER_IF_MATCH, "W/\"7\"")));
+        assertEquals(Long.valueOf(7), EntityTags.expectedVersion(request(EntityTags.HEADER_IF_MATCH, "\"7\"")));
+        assertEquals(Long.valueOf(7), EntityTags.expectedVersion(request(EntityTags.HEADER_IF_MATCH, "7")));
+    }
+
+    @Test
+    public void expectedVersionIgnoresTheVariant() {
+        assertEquals("W/\"7-k2x.3\"", EntityTags.of(7, "k2x.3"));
+        assertEquals(Long.valueOf(7), EntityTags.expectedVersion(request(EntityTags.HEADER_IF_MATCH, EntityTags.of(7, "k2x.3"))));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void expectedVersionRejectsMalformedTags() {
+        EntityTags.expectedVersion(request(EntityTags.HEADER_IF_MATCH, "\"seven\""));
+    }
+
+    @Test
+    public void noneMatchIsFalseWithoutHeader() {
+        assertFalse(EntityTags.noneMatch(request(), 7));
+    }
+
+    @Test
+    public void noneMatchComparesWeakly() {
+        assertTrue(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "\"7\""), 7));
+        assertTrue(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "W/\"7\""), 7));
+        assertTrue(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "W/\"7\""), "\"7\""));
+        assertFalse(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "W/\"8\""), 7));
+    }
+
+    @Test
+    public void noneMatchChecksEveryListedTag() {
+        assertTrue(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "\"5\", W/\"6\" ,W/\"7\""), 7));
+        assertFalse(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "\"5\", W/\"6\""), 7));
+    }
+
+    @Test
+    public void noneMatchAcceptsAnyTag() {
+        assertTrue(EntityTags.noneMatch(request(EntityTags.HEADER_IF_NONE_MATCH, "*"), 7));
+    }
+
+    private static Request request(final String... headers) {
+        final Map<String, String> values = new HashMap<>();
+        for (int index = 0; index < headers.length; index += 2) {
+            values.put(headers[index], headers[index + 1]);
+        }
+        return new Request() {
+
+            @Override
+            public String headers(final String header) {
+                return values.get(header);
+            }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package ru.tchallenge.pilot.service.utility.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+import spark.Request;
+
+import ru.tchallenge.pilot.service.utility.http.PayloadTooLargeException;
+import ru.tchallenge.pilot.service.utility.http.UnsupportedMediaTypeException;
+import ru.tchallenge.pilot.service.utility.validation.ValidationAware;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonTest {
+
+    @Test
+    public void chunkedBodyIsBoundAgain() {
+        final Request request = request("{\"login\":\"alice\"}", "application/json", -1);
+        assertEquals("alice", Json.body(Invoice.class, request).login);
+        assertEquals("alice", Json.body(Invoice.class, request).login);
+    }
+
+    @Test(expected = PayloadTooLargeException.class)
+    public void chunkedBodyIsBounded() {
+        final StringBuilder login = new StringBuilder();
+        while (login.length() <= 1024 * 1024) {
+            login.append("alice");
+        }
+        Json.body(Invoice.class, request("{\"login\":\"" + login + "\"}", "application/json", -1));
+    }
+
+    @Test
+    public void bodyOfUnknownTypeIsBoundAsJson() {
+        final Request request = request("{\"login\":\"alice\"}", "text/plain; charset=UTF-8", 17);
+        assertEquals("alice", Json.body(Invoice.class, request).login);
+    }
+
+    @Test(expected = UnsupportedMediaTypeException.class)
+    public void bodyOfUnknownTypeIsRejectedUnlessJson() {
+        Json.body(Invoice.class, request("login=alice", "application/x-www-form-urlencoded", 11));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void invalidJsonIsNotReportedAsUnsupported() {
+        try {
+            Json.body(Invoice.class, request("login=alice", "application/json", 11));
+        } catch (final UnsupportedMediaTypeException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    public static final class Invoice implements ValidationAware {
+
+        public String login;
+
+        @Override
+        public void registerViolations(final Collection<String> violations) {
+
+        }
+    }
+
+    /**
+     * Request with the given body, its stream can be read only once as with a chunked body in Spark.
+     */
+    private static Request request(final String body, final String contentType, final long contentLength) {
+        final ByteArrayInputStream bytes = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        final ServletInputStream input = new ServletInputStream() {
+
+            @Override
+            public boolean isFinished() {
+                return bytes.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(final ReadListener readListener) {
+
+            }
+
+            @Override
+            public int read() {
+                return bytes.read();
+            }
+        };
+        final HttpServletRequest raw = (HttpServletRequest) Proxy.newProxyInstance(
+                JsonTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, arguments) -> {
+                    switch (method.getName()) {
+                        case "getContentLengthLong":
+                            return contentLength;
+                        case "getInputStream":
+                            return input;
+                        default:
+                            return null;
+                    }
+                });
+        final Map<String, Object> attributes = new HashMap<>();
+        return new Request() {
+
+            @Override
+            public HttpServletRequest raw() {
+                return raw;
+            }
+
+            @Override
+            public String headers(final String header) {
+                return MediaFormat.HEADER_CONTENT_TYPE.equals(header) ? contentType : null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T attribute(final String attribute) {
+                return (T) attributes.get(attribute);
+            }
+
+            @Override
+            public void attribute(final String attribute, final Object value) {
+                attributes.put(attribute, value);
+            }
+        };
+    }
+}